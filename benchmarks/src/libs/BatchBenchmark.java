@@ -0,0 +1,109 @@
+package src.libs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost per sample of the batch drive methods against looping over the
+ * per-sample methods they replace, over the whole input sweep. The Cheesy
+ * Drive pairs compare {@link CheesyDrive#calculate}; the Culver Drive pairs
+ * compare the table path through a {@link RobotDrive}, which is the only
+ * per-sample path it has.
+ *
+ * @author Team 226
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(DriveInputSweep.SIZE)
+public class BatchBenchmark {
+
+	private static final int N = DriveInputSweep.SIZE;
+
+	private final DriveInputSweep in = new DriveInputSweep(226);
+
+	private final double[] left = new double[N];
+	private final double[] right = new double[N];
+	private final double[] out = new double[2];
+
+	private CheesyDrive cheesy;
+	private CulverDriveTable culverTable;
+	private RobotDrive rd;
+
+	@Setup
+	public void setup() {
+		cheesy = new CheesyDrive();
+		culverTable = new CulverDriveTable(256);
+		rd = new RobotDrive(new RecordingMotorSink(1), new RecordingMotorSink(1));
+	}
+
+	@Benchmark
+	public void cheesyPerSample(Blackhole bh) {
+		for (int i = 0; i < N; i++) {
+			bh.consume(cheesy.calculate(in.throttle[i], in.turn[i], in.quickTurn[i], out));
+		}
+	}
+
+	@Benchmark
+	public double[] cheesyBatch() {
+		cheesy.calculateBatch(in.throttle, in.turn, in.quickTurn, left, right, N);
+		return left;
+	}
+
+	@Benchmark
+	public void cheesyAltPerSample(Blackhole bh) {
+		for (int i = 0; i < N; i++) {
+			bh.consume(cheesy.calculateAlt(in.throttle[i], in.turn[i], out));
+		}
+	}
+
+	@Benchmark
+	public double[] cheesyAltBatch() {
+		cheesy.calculateAltBatch(in.throttle, in.turn, left, right, N);
+		return left;
+	}
+
+	@Benchmark
+	public void culverTablePerSample(Blackhole bh) {
+		for (int i = 0; i < N; i++) {
+			CulverDrive.culverDrive(rd, culverTable, in.throttle[i], in.x[i], in.y[i], in.quickTurn[i], false);
+			bh.consume(rd.getLeftOutput());
+		}
+	}
+
+	@Benchmark
+	public double[] culverTableBatch() {
+		CulverDrive.culverDriveBatch(culverTable, in.throttle, in.x, in.y, in.quickTurn, left, right, N);
+		return left;
+	}
+
+	@Benchmark
+	public void culverAltTablePerSample(Blackhole bh) {
+		for (int i = 0; i < N; i++) {
+			CulverDrive.culverDriveAlt(rd, culverTable, in.throttle[i], in.x[i], in.y[i], false);
+			bh.consume(rd.getLeftOutput());
+		}
+	}
+
+	@Benchmark
+	public double[] culverAltTableBatch() {
+		CulverDrive.culverDriveAltBatch(culverTable, in.throttle, in.x, in.y, left, right, N);
+		return left;
+	}
+}
@@ -0,0 +1,59 @@
+package src.libs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of simulating one 20 ms robot cycle with {@link DifferentialDriveSim}.
+ * Real time is 20,000,000 ns per cycle, so the score divided into that is how
+ * many times faster than real time the simulation runs.
+ *
+ * @author Team 226
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DifferentialDriveSimBenchmark {
+
+	private static final double PERIOD = 0.02;
+
+	private DriveInputSweep in;
+	private DifferentialDriveSim sim;
+	private RobotDrive rd;
+	private int i;
+
+	@Setup
+	public void setup() {
+		in = new DriveInputSweep(226);
+		sim = new DifferentialDriveSim();
+		rd = new RobotDrive(sim.getLeftSink(), sim.getRightSink());
+	}
+
+	@Benchmark
+	public double stepOnly() {
+		sim.step(PERIOD);
+		return sim.getX();
+	}
+
+	@Benchmark
+	public double closedLoopCycle() {
+		int k = i++ & DriveInputSweep.MASK;
+		CheesyDrive.cheesyDrive(rd, in.throttle[k], in.turn[k], in.quickTurn[k], false);
+		sim.step(PERIOD);
+		return sim.getX();
+	}
+}
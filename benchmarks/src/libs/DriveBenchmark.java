@@ -0,0 +1,161 @@
+package src.libs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.util.SimulatedClock;
+
+/**
+ * Cost of one control cycle of each drive algorithm, driven by a recorded-like
+ * input sweep into in-memory motor sinks. Run with the gc profiler (the
+ * {@code jmh} task does) to see the allocation rate of each call.
+ *
+ * @author Team 226
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DriveBenchmark {
+
+	private final DriveInputSweep in = new DriveInputSweep(226);
+
+	private RecordingMotorSink left;
+	private RecordingMotorSink right;
+	private RobotDrive rd;
+
+	private RobotDrive tableDrive;
+	private CulverDriveTable culverTable;
+
+	private RobotDrive limitedDrive;
+	private SimulatedClock clock;
+
+	private SwerveDrive swerve;
+	private SwerveDrive swerveN;
+	private SwerveModuleRateLimiter moduleLimiter;
+	private final double[] speeds = new double[4];
+	private final double[] angles = new double[4];
+
+	private int i;
+
+	@Setup
+	public void setup() {
+		left = new RecordingMotorSink(1);
+		right = new RecordingMotorSink(1);
+		rd = new RobotDrive(left, right);
+
+		tableDrive = new RobotDrive(left, right);
+		tableDrive.enableCurveTable(1024);
+		culverTable = new CulverDriveTable(256);
+
+		clock = new SimulatedClock();
+		limitedDrive = new RobotDrive(left, right);
+		limitedDrive.enableRateLimiting(2, 4, clock);
+
+		swerve = new SwerveDrive(0.6, 0.5);
+		swerveN = new SwerveDrive(new Pair[] { new Pair(-0.3, 0.35), new Pair(0.3, 0.35), new Pair(-0.3, -0.35),
+				new Pair(0.3, -0.35), new Pair(0, 0.5) });
+		moduleLimiter = new SwerveModuleRateLimiter(4, 2, 4);
+	}
+
+	private int next() {
+		return i = (i + 1) & DriveInputSweep.MASK;
+	}
+
+	@Benchmark
+	public double cheesyDrive() {
+		int k = next();
+		CheesyDrive.cheesyDrive(rd, in.throttle[k], in.turn[k], in.quickTurn[k], false);
+		return left.getLast();
+	}
+
+	@Benchmark
+	public double cheesyDriveAlt() {
+		int k = next();
+		CheesyDrive.cheesyDriveAlt(rd, in.throttle[k], in.turn[k], false);
+		return left.getLast();
+	}
+
+	@Benchmark
+	public double culverDrive() {
+		int k = next();
+		CulverDrive.culverDrive(rd, in.throttle[k], in.x[k], in.y[k], in.quickTurn[k], false);
+		return left.getLast();
+	}
+
+	@Benchmark
+	public double culverDriveAlt() {
+		int k = next();
+		CulverDrive.culverDriveAlt(rd, in.throttle[k], in.x[k], in.y[k], false);
+		return left.getLast();
+	}
+
+	@Benchmark
+	public double culverDriveTable() {
+		int k = next();
+		CulverDrive.culverDrive(rd, culverTable, in.throttle[k], in.x[k], in.y[k], in.quickTurn[k], false);
+		return left.getLast();
+	}
+
+	@Benchmark
+	public double robotDriveCurve() {
+		int k = next();
+		rd.drive(in.throttle[k], in.curve[k]);
+		return left.getLast();
+	}
+
+	@Benchmark
+	public double robotDriveCurveTable() {
+		int k = next();
+		tableDrive.drive(in.throttle[k], in.curve[k]);
+		return left.getLast();
+	}
+
+	@Benchmark
+	public double tankDriveRateLimited() {
+		int k = next();
+		clock.advance(20_000_000L);
+		limitedDrive.tankDrive(in.throttle[k], in.turn[k], false);
+		return left.getLast();
+	}
+
+	@Benchmark
+	public double[][] swerve4WheelAllocating() {
+		int k = next();
+		return swerve.calc4WheelVectors(in.strafe[k], in.forward[k], in.rotation[k], in.gyro[k]);
+	}
+
+	@Benchmark
+	public double swerve4Wheel() {
+		int k = next();
+		swerve.calc4WheelVectors(in.strafe[k], in.forward[k], in.rotation[k], in.gyro[k], speeds, angles);
+		return angles[0];
+	}
+
+	@Benchmark
+	public double swerve4WheelRateLimited() {
+		int k = next();
+		swerve.calc4WheelVectors(in.strafe[k], in.forward[k], in.rotation[k], in.gyro[k], speeds, angles);
+		moduleLimiter.calculate(speeds, 0.02);
+		return speeds[0];
+	}
+
+	@Benchmark
+	public double swerveNWheel() {
+		int k = next();
+		return swerveN.calcWheelVectorsN(in.strafe[k], in.forward[k], in.rotation[k], in.gyro[k])[0].angle;
+	}
+}
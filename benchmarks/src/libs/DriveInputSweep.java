@@ -0,0 +1,90 @@
+package src.libs;
+
+import java.util.Random;
+
+/**
+ * A repeatable trace of driver inputs for the benchmarks, shaped like a match
+ * rather than uniform noise: sticks wander smoothly, sit in the deadband for a
+ * while, and occasionally slam to full scale.
+ *
+ * @author Team 226
+ *
+ */
+final class DriveInputSweep {
+
+	/**
+	 * Number of samples in the trace, a power of two so indexes wrap with a mask
+	 */
+	static final int SIZE = 4096;
+	static final int MASK = SIZE - 1;
+
+	final double[] throttle = new double[SIZE];
+	final double[] turn = new double[SIZE];
+	final boolean[] quickTurn = new boolean[SIZE];
+
+	/**
+	 * Steering stick position, for Culver Drive
+	 */
+	final double[] x = new double[SIZE];
+	final double[] y = new double[SIZE];
+
+	/**
+	 * Strafe, forward and rotation commands and gyro angle, for swerve
+	 */
+	final double[] strafe = new double[SIZE];
+	final double[] forward = new double[SIZE];
+	final double[] rotation = new double[SIZE];
+	final double[] gyro = new double[SIZE];
+
+	/**
+	 * Curve values for {@link RobotDrive#drive}, covering both turn directions
+	 */
+	final double[] curve = new double[SIZE];
+
+	DriveInputSweep(long seed) {
+		Random random = new Random(seed);
+		double a = 0, b = 0, c = 0, heading = 0;
+		boolean quick = false;
+
+		for (int i = 0; i < SIZE; i++) {
+			a = wander(random, a);
+			b = wander(random, b);
+			c = wander(random, c);
+			if (random.nextInt(50) == 0) {
+				quick = !quick;
+			}
+			heading += c * 5;
+
+			throttle[i] = a;
+			turn[i] = b;
+			quickTurn[i] = quick;
+
+			double angle = Math.PI * b;
+			double radius = Math.abs(c);
+			x[i] = radius * Math.sin(angle);
+			y[i] = radius * Math.cos(angle);
+
+			strafe[i] = b;
+			forward[i] = a;
+			rotation[i] = c;
+			gyro[i] = heading;
+
+			curve[i] = Math.copySign(Math.exp(-3 * Math.abs(b)), b);
+		}
+	}
+
+	/**
+	 * Moves a stick one step: mostly a small drift, sometimes a slam to full
+	 * scale or a release into the deadband.
+	 */
+	private static double wander(Random random, double value) {
+		int event = random.nextInt(100);
+		if (event == 0) {
+			return random.nextBoolean() ? 1 : -1;
+		} else if (event == 1) {
+			return 0;
+		}
+		value += random.nextGaussian() * 0.05;
+		return Math.max(-1, Math.min(1, value));
+	}
+}
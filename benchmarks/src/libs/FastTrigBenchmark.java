@@ -0,0 +1,130 @@
+package src.libs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the {@link FastTrig} kernels against the {@link Math} calls they
+ * replace, and of the drive methods with fast math on and off, over the input
+ * sweep.
+ *
+ * @author Team 226
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FastTrigBenchmark {
+
+	private final DriveInputSweep in = new DriveInputSweep(226);
+
+	private RecordingMotorSink left;
+	private RobotDrive rd;
+
+	private SwerveDrive swerve;
+	private SwerveDrive fastSwerve;
+	private final double[] speeds = new double[4];
+	private final double[] angles = new double[4];
+
+	private int i;
+
+	@Setup
+	public void setup() {
+		left = new RecordingMotorSink(1);
+		rd = new RobotDrive(left, new RecordingMotorSink(1));
+
+		swerve = new SwerveDrive(0.6, 0.5);
+		fastSwerve = new SwerveDrive(0.6, 0.5);
+		fastSwerve.setFastMath(true);
+	}
+
+	@TearDown
+	public void tearDown() {
+		CulverDrive.setFastMath(false);
+	}
+
+	private int next() {
+		return i = (i + 1) & DriveInputSweep.MASK;
+	}
+
+	@Benchmark
+	public double mathAtan2() {
+		int k = next();
+		return Math.atan2(in.y[k], in.x[k]);
+	}
+
+	@Benchmark
+	public double fastAtan2() {
+		int k = next();
+		return FastTrig.atan2(in.y[k], in.x[k]);
+	}
+
+	@Benchmark
+	public double mathAtan2Degrees() {
+		int k = next();
+		return Math.toDegrees(Math.atan2(in.y[k], in.x[k]));
+	}
+
+	@Benchmark
+	public double fastAtan2Degrees() {
+		int k = next();
+		return FastTrig.atan2Degrees(in.y[k], in.x[k]);
+	}
+
+	@Benchmark
+	public double mathSinCos() {
+		int k = next();
+		double radians = Math.toRadians(in.gyro[k]);
+		return Math.sin(radians) + Math.cos(radians);
+	}
+
+	@Benchmark
+	public double fastSinCos() {
+		int k = next();
+		return FastTrig.sinDegrees(in.gyro[k]) + FastTrig.cosDegrees(in.gyro[k]);
+	}
+
+	@Benchmark
+	public double swerve4WheelMath() {
+		int k = next();
+		swerve.calc4WheelVectors(in.strafe[k], in.forward[k], in.rotation[k], in.gyro[k], speeds, angles);
+		return angles[0];
+	}
+
+	@Benchmark
+	public double swerve4WheelFast() {
+		int k = next();
+		fastSwerve.calc4WheelVectors(in.strafe[k], in.forward[k], in.rotation[k], in.gyro[k], speeds, angles);
+		return angles[0];
+	}
+
+	@Benchmark
+	public double culverDriveMath() {
+		int k = next();
+		CulverDrive.setFastMath(false);
+		CulverDrive.culverDrive(rd, in.throttle[k], in.x[k], in.y[k], in.quickTurn[k], false);
+		return left.getLast();
+	}
+
+	@Benchmark
+	public double culverDriveFast() {
+		int k = next();
+		CulverDrive.setFastMath(true);
+		CulverDrive.culverDrive(rd, in.throttle[k], in.x[k], in.y[k], in.quickTurn[k], false);
+		return left.getLast();
+	}
+}
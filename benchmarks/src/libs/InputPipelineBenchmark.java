@@ -0,0 +1,90 @@
+package src.libs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.util.ControllerInput;
+import src.util.ControllerState;
+import src.util.ScriptedInputSource;
+
+/**
+ * Cost of one teleop cycle from controller to motors: a
+ * {@link ControllerInput} snapshot of a scripted trace, Cheesy Drive and the
+ * motor writes, with no HAL involved.
+ *
+ * @author Team 226
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InputPipelineBenchmark {
+
+	private static final int PORT = 0;
+
+	private ScriptedInputSource source;
+	private ControllerInput input;
+	private RecordingMotorSink left;
+	private RobotDrive rd;
+
+	@Setup
+	public void setup() {
+		DriveInputSweep in = new DriveInputSweep(226);
+		int[] buttons = new int[DriveInputSweep.SIZE];
+		int[] pov = new int[DriveInputSweep.SIZE];
+		double[] leftY = new double[DriveInputSweep.SIZE];
+		for (int i = 0; i < DriveInputSweep.SIZE; i++) {
+			buttons[i] = in.quickTurn[i] ? 1 << 5 : 0;
+			pov[i] = in.curve[i] > 0.5 ? 90 : -1;
+			leftY[i] = -in.throttle[i];
+		}
+
+		source = new ScriptedInputSource(0.02);
+		source.setAxisTrace(PORT, 1, leftY);
+		source.setAxisTrace(PORT, 4, in.turn);
+		source.setButtonTrace(PORT, buttons);
+		source.setPOVTrace(PORT, pov);
+
+		input = new ControllerInput(PORT, 0.15, source);
+		left = new RecordingMotorSink(1);
+		rd = new RobotDrive(left, new RecordingMotorSink(1));
+	}
+
+	@Benchmark
+	public double teleopCycle() {
+		if (source.getCycle() >= DriveInputSweep.MASK) {
+			source.rewind();
+		} else {
+			source.advance();
+		}
+
+		ControllerState state = input.snapshot();
+		double throttle = state.pov == 90 ? 0.5 * state.leftY : state.leftY;
+		CheesyDrive.cheesyDrive(rd, throttle, state.rightX, state.isPressed(6), false);
+		return left.getLast();
+	}
+
+	@Benchmark
+	public double snapshotOnly() {
+		if (source.getCycle() >= DriveInputSweep.MASK) {
+			source.rewind();
+		} else {
+			source.advance();
+		}
+
+		return input.snapshot().leftY;
+	}
+}
@@ -8,6 +8,12 @@ import src.libs.RobotDrive;
  * Math from <a href=
  * "https://www.chiefdelphi.com/forums/showpost.php?p=1181728&postcount=2">this
  * thread</a>
+ * <p>
+ * The batch methods skim and limit with {@code Math.min} and
+ * {@code Math.copySign} rather than branches, so their loops are straight-line
+ * code. They have no
+ * {@code jdk.incubator.vector} path: that module needs {@code --add-modules}
+ * at launch and is not in the roboRIO JRE.
  * 
  * @author Alec Minchington, Team 226
  *
@@ -28,13 +34,54 @@ public final class CheesyDrive {
 
 	private static final double SKIM_GAIN = 0.5;
 	private static final double TURN_GAIN = 1.5;
-	private static double THROTTLE_THRESHOLD = 0.5;
+	private static final double THROTTLE_THRESHOLD = 0.5;
+
+	/**
+	 * Instance with the default gains, used by the static methods
+	 */
+	private static final CheesyDrive DEFAULT = new CheesyDrive();
+
+	private final double skimGain;
+	private final double turnGain;
+	private final double throttleThreshold;
+
+	/**
+	 * Output of the last drive call, reused so driving allocates nothing. This
+	 * makes the drive methods, and the static methods that share
+	 * {@link #DEFAULT}, safe to call from one thread only.
+	 */
+	private final double[] output = new double[2];
+
+	/**
+	 * Construct a new CheesyDrive with the default gains.
+	 */
+	public CheesyDrive() {
+		this(SKIM_GAIN, TURN_GAIN, THROTTLE_THRESHOLD);
+	}
+
+	/**
+	 * Construct a new CheesyDrive with the given gains.
+	 * 
+	 * @param skimGain
+	 *            fraction of a side's output above 1 that is taken off the other
+	 *            side
+	 * @param turnGain
+	 *            how much the turn is scaled by the throttle when not quick
+	 *            turning
+	 * @param throttleThreshold
+	 *            throttle above which the alternate method stops quick turning
+	 */
+	public CheesyDrive(double skimGain, double turnGain, double throttleThreshold) {
+		this.skimGain = skimGain;
+		this.turnGain = turnGain;
+		this.throttleThreshold = throttleThreshold;
+	}
 
 	// CHEESY DRIVE CALCULATION METHODS
 
 	/**
 	 * Calculates motor output for Cheesy Drive using the quickturn button
-	 * method.
+	 * method, with the default gains.
 	 * <p>
 	 * 
 	 * @param rd
@@ -48,20 +95,49 @@ public final class CheesyDrive {
 	 *            {@code false} to disable
 	 */
 	public static void cheesyDrive(RobotDrive rd, double throttle, double turn, boolean quickTurn, boolean squaredInputs) {
-		
-		if (!quickTurn) {
-			turn = turn * (TURN_GAIN * Math.abs(throttle));
-		}
-
-		double leftRaw = throttle - turn;
-		double rightRaw = throttle + turn;
+		DEFAULT.drive(rd, throttle, turn, quickTurn, squaredInputs);
+	}
+	
+	/**
+	 * Calculates motor output for Cheesy Drive using the alternate method, with
+	 * the default gains. Quickturning enables after a certain throttle
+	 * threshold.
+	 * <p>
+	 * 
+	 * @param rd
+	 *            RobotDrive object to be driven
+	 * @param throttle
+	 *            throttle value
+	 * @param turn
+	 *            turn value
+	 */
+	public static void cheesyDriveAlt(RobotDrive rd, double throttle, double turn, boolean squaredInputs) {
+		DEFAULT.driveAlt(rd, throttle, turn, squaredInputs);
+	}
 
-		double left = leftRaw + skim(rightRaw);
-		double right = rightRaw + skim(leftRaw);
+	/**
+	 * Calculates motor output for Cheesy Drive using the quickturn button
+	 * method.
+	 * <p>
+	 * 
+	 * @param rd
+	 *            RobotDrive object to be driven
+	 * @param throttle
+	 *            throttle value
+	 * @param turn
+	 *            turn value
+	 * @param quickTurn
+	 *            {@code true} to enable quick turning (turning in place),
+	 *            {@code false} to disable
+	 */
+	public void drive(RobotDrive rd, double throttle, double turn, boolean quickTurn, boolean squaredInputs) {
+		long start = DriveProfiler.start();
+		calculate(throttle, turn, quickTurn, output);
+		DriveProfiler.stop(DriveProfiler.Stage.CHEESY_DRIVE, start);
 
-		rd.tankDrive(limit(left), limit(right), squaredInputs);
+		rd.tankDrive(output[0], output[1], squaredInputs);
 	}
-	
+
 	/**
 	 * Calculates motor output for Cheesy Drive using the alternate method.
 	 * Quickturning enables after a certain throttle threshold.
@@ -74,56 +150,168 @@ public final class CheesyDrive {
 	 * @param turn
 	 *            turn value
 	 */
-	public static void cheesyDriveAlt(RobotDrive rd, double throttle, double turn, boolean squaredInputs) {
-		
-		if (throttle > THROTTLE_THRESHOLD) {
-			turn = turn * (TURN_GAIN * Math.abs(throttle));
-		}
-
-		double leftRaw = throttle - turn;
-		double rightRaw = throttle + turn;
+	public void driveAlt(RobotDrive rd, double throttle, double turn, boolean squaredInputs) {
+		long start = DriveProfiler.start();
+		calculateAlt(throttle, turn, output);
+		DriveProfiler.stop(DriveProfiler.Stage.CHEESY_DRIVE_ALT, start);
 
-		double left = leftRaw + skim(rightRaw);
-		double right = rightRaw + skim(leftRaw);
+		rd.tankDrive(output[0], output[1], squaredInputs);
+	}
 
-		rd.tankDrive(limit(left), limit(right), squaredInputs);
+	/**
+	 * Calculates Cheesy Drive output using the quickturn button method without
+	 * driving anything.
+	 * <p>
+	 * 
+	 * @param throttle
+	 *            throttle value
+	 * @param turn
+	 *            turn value
+	 * @param quickTurn
+	 *            {@code true} to enable quick turning (turning in place),
+	 *            {@code false} to disable
+	 * @param out
+	 *            array to receive the left output at index 0 and the right
+	 *            output at index 1
+	 * @return {@code true} if either output had to be limited to +/- 1,
+	 *         {@code false} otherwise
+	 */
+	public boolean calculate(double throttle, double turn, boolean quickTurn, double[] out) {
+		return mix(throttle, scaleTurn(throttle, turn, quickTurn), out, 0, out, 1);
 	}
 
-	// AUXILIARY CALCULATION METHODS
+	/**
+	 * Calculates Cheesy Drive output using the alternate method without driving
+	 * anything. Quickturning enables after a certain throttle threshold.
+	 * <p>
+	 * 
+	 * @param throttle
+	 *            throttle value
+	 * @param turn
+	 *            turn value
+	 * @param out
+	 *            array to receive the left output at index 0 and the right
+	 *            output at index 1
+	 * @return {@code true} if either output had to be limited to +/- 1,
+	 *         {@code false} otherwise
+	 */
+	public boolean calculateAlt(double throttle, double turn, double[] out) {
+		return calculate(throttle, turn, !(throttle > throttleThreshold), out);
+	}
 
 	/**
-	 * Calculates the value to be skimmed off of the given input.
+	 * Calculates Cheesy Drive output using the quickturn button method for many
+	 * samples at once. Gives the same outputs as {@link #calculate}, without
+	 * the per-call overhead or the saturation flag.
 	 * <p>
 	 * 
-	 * @param v
-	 *            number to be skimmed
-	 * @return the amount skimmed off of <b>v</b>
-	 */
-	private static double skim(double v) {
-		if (v > 1.0) {
-			return -((v - 1.0) * SKIM_GAIN);
-		} else if (v < -1.0) {
-			return -((v + 1.0) * SKIM_GAIN);
-		} else {
-			return 0;
+	 * @param throttle
+	 *            throttle value of each sample
+	 * @param turn
+	 *            turn value of each sample
+	 * @param quickTurn
+	 *            quickturn state of each sample
+	 * @param left
+	 *            array to receive the left output of each sample
+	 * @param right
+	 *            array to receive the right output of each sample
+	 * @param n
+	 *            number of samples
+	 */
+	public void calculateBatch(double[] throttle, double[] turn, boolean[] quickTurn, double[] left, double[] right,
+			int n) {
+		for (int i = 0; i < n; i++) {
+			double t = throttle[i];
+			mix(t, scaleTurn(t, turn[i], quickTurn[i]), left, i, right, i);
 		}
 	}
 
 	/**
-	 * Limits the input to +/- 1.
+	 * Calculates Cheesy Drive output using the alternate method for many samples
+	 * at once. Gives the same outputs as {@link #calculateAlt}, without the
+	 * per-call overhead or the saturation flag.
 	 * <p>
 	 * 
+	 * @param throttle
+	 *            throttle value of each sample
+	 * @param turn
+	 *            turn value of each sample
+	 * @param left
+	 *            array to receive the left output of each sample
+	 * @param right
+	 *            array to receive the right output of each sample
+	 * @param n
+	 *            number of samples
+	 */
+	public void calculateAltBatch(double[] throttle, double[] turn, double[] left, double[] right, int n) {
+		for (int i = 0; i < n; i++) {
+			double t = throttle[i];
+			mix(t, scaleTurn(t, turn[i], !(t > throttleThreshold)), left, i, right, i);
+		}
+	}
+
+	/**
+	 * Scales the turn by the throttle, unless quick turning.
+	 */
+	private double scaleTurn(double throttle, double turn, boolean quickTurn) {
+		return quickTurn ? turn : turn * (turnGain * Math.abs(throttle));
+	}
+
+	/**
+	 * Skim and limit of one sample, shared by every Cheesy Drive method.
+	 * Branch-free: the amount a side is over 1 is {@code v - clamp(v)}, which
+	 * is exactly 0 inside +/- 1.
+	 * 
+	 * @return {@code true} if either output had to be limited to +/- 1,
+	 *         {@code false} otherwise
+	 */
+	private boolean mix(double throttle, double turn, double[] left, int leftIndex, double[] right, int rightIndex) {
+		double leftRaw = throttle - turn;
+		double rightRaw = throttle + turn;
+
+		double leftSkimmed = leftRaw + (clamp(rightRaw) - rightRaw) * skimGain;
+		double rightSkimmed = rightRaw + (clamp(leftRaw) - leftRaw) * skimGain;
+
+		double leftOut = clamp(leftSkimmed);
+		double rightOut = clamp(rightSkimmed);
+		left[leftIndex] = leftOut;
+		right[rightIndex] = rightOut;
+
+		return leftOut != leftSkimmed || rightOut != rightSkimmed;
+	}
+
+	/**
+	 * @return fraction of a side's output above 1 that is taken off the other
+	 *         side
+	 */
+	public double getSkimGain() {
+		return skimGain;
+	}
+
+	/**
+	 * @return how much the turn is scaled by the throttle when not quick turning
+	 */
+	public double getTurnGain() {
+		return turnGain;
+	}
+
+	/**
+	 * @return throttle above which the alternate method stops quick turning
+	 */
+	public double getThrottleThreshold() {
+		return throttleThreshold;
+	}
+
+	// AUXILIARY CALCULATION METHODS
+
+	/**
+	 * Limits the input to +/- 1 without branching.
+	 * 
 	 * @param arg
 	 *            the number to be limited
-	 * @return {@code 1} if <b>arg</b> {@code > 1}, {@code -1} if <b>arg</b>
-	 *         {@code < -1}.
-	 */
-	private static double limit(double arg) {
-		if (arg > 1) {
-			return 1;
-		} else if (arg < -1) {
-			return -1;
-		}
-		return arg;
+	 * @return <b>arg</b> limited to +/- 1
+	 */
+	private static double clamp(double arg) {
+		return Math.copySign(Math.min(Math.abs(arg), 1), arg);
 	}
 }
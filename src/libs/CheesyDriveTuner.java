@@ -0,0 +1,306 @@
+package src.libs;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import src.util.TelemetryReader;
+
+/**
+ * Scores a grid of {@link CheesyDrive} gain combinations against an input
+ * trace and ranks them.
+ * <p>
+ * A trace is a sequence of driver inputs with the left/right outputs the
+ * driver wanted, either built from the inputs recorded in a
+ * {@link DriveTelemetry} log or generated. The wanted outputs never come from
+ * the outputs the robot recorded: those were produced by the gains being
+ * tuned, then squared and rate limited by {@link RobotDrive#tankDrive}, so
+ * scoring against them would only rank gains by how close they are to the
+ * ones already on the robot. Each combination is scored by its RMS tracking error against those outputs
+ * plus a penalty for the fraction of cycles where an output had to be limited.
+ * Combinations are spread across all cores with fork-join.
+ * 
+ * @author Team 226
+ */
+public class CheesyDriveTuner {
+
+	/**
+	 * Number of gain combinations each fork-join task scores sequentially
+	 */
+	private static final int TASK_SIZE = 4;
+
+	private final double[] throttle;
+	private final double[] turn;
+	private final boolean[] quickTurn;
+	private final double[] targetLeft;
+	private final double[] targetRight;
+
+	/**
+	 * The score of one combination of gains
+	 */
+	public static class Result implements Comparable<Result> {
+		public final double skimGain;
+		public final double turnGain;
+		public final double throttleThreshold;
+
+		/**
+		 * RMS difference between the outputs and the target outputs
+		 */
+		public final double trackingError;
+
+		/**
+		 * Fraction of cycles where an output had to be limited to +/- 1
+		 */
+		public final double saturation;
+
+		/**
+		 * Tracking error plus the weighted saturation, lower is better
+		 */
+		public final double score;
+
+		Result(double skimGain, double turnGain, double throttleThreshold, double trackingError, double saturation,
+				double score) {
+			this.skimGain = skimGain;
+			this.turnGain = turnGain;
+			this.throttleThreshold = throttleThreshold;
+			this.trackingError = trackingError;
+			this.saturation = saturation;
+			this.score = score;
+		}
+
+		@Override
+		public int compareTo(Result other) {
+			return Double.compare(score, other.score);
+		}
+
+		@Override
+		public String toString() {
+			return "[ skim " + skimGain + ", turn " + turnGain + ", threshold " + throttleThreshold + ", error "
+					+ trackingError + ", saturation " + saturation + " ]";
+		}
+	}
+
+	/**
+	 * Construct a new CheesyDriveTuner from a trace.
+	 * 
+	 * @param throttle
+	 *            throttle value of each cycle
+	 * @param turn
+	 *            turn value of each cycle
+	 * @param quickTurn
+	 *            state of the quickturn button each cycle
+	 * @param targetLeft
+	 *            wanted left output of each cycle
+	 * @param targetRight
+	 *            wanted right output of each cycle
+	 */
+	public CheesyDriveTuner(double[] throttle, double[] turn, boolean[] quickTurn, double[] targetLeft,
+			double[] targetRight) {
+		int n = throttle.length;
+		if (turn.length != n || quickTurn.length != n || targetLeft.length != n || targetRight.length != n) {
+			throw new IllegalArgumentException("Trace arrays must all be the same length");
+		}
+		this.throttle = throttle;
+		this.turn = turn;
+		this.quickTurn = quickTurn;
+		this.targetLeft = targetLeft;
+		this.targetRight = targetRight;
+	}
+
+	/**
+	 * Builds a tuner from the driver inputs in a {@link DriveTelemetry} log. The
+	 * targets are the {@linkplain #reference reference} outputs for those
+	 * inputs; the outputs recorded in the log are ignored.
+	 * 
+	 * @param log
+	 *            log to read, from its current position to the end
+	 * @return a tuner for the logged trace
+	 */
+	public static CheesyDriveTuner fromLog(TelemetryReader log) {
+		int n = (int) log.getRecordCount();
+		double[] throttle = new double[n];
+		double[] turn = new double[n];
+		boolean[] quickTurn = new boolean[n];
+		double[] left = new double[n];
+		double[] right = new double[n];
+
+		int i = 0;
+		while (i < n && log.next()) {
+			throttle[i] = log.get(DriveTelemetry.THROTTLE);
+			turn[i] = log.get(DriveTelemetry.TURN);
+			quickTurn[i] = log.getBoolean(DriveTelemetry.QUICK_TURN);
+			reference(throttle[i], turn[i], left, right, i);
+			i++;
+		}
+
+		return new CheesyDriveTuner(Arrays.copyOf(throttle, i), Arrays.copyOf(turn, i),
+				Arrays.copyOf(quickTurn, i), Arrays.copyOf(left, i), Arrays.copyOf(right, i));
+	}
+
+	/**
+	 * Builds a tuner from a generated trace. The sticks wander smoothly, quick
+	 * turn is held when the throttle is near zero, and the targets are the
+	 * {@linkplain #reference reference} outputs.
+	 * 
+	 * @param cycles
+	 *            length of the trace
+	 * @param seed
+	 *            random seed, so the same trace can be generated again
+	 * @return a tuner for the generated trace
+	 */
+	public static CheesyDriveTuner synthetic(int cycles, long seed) {
+		Random random = new Random(seed);
+		double[] throttle = new double[cycles];
+		double[] turn = new double[cycles];
+		boolean[] quickTurn = new boolean[cycles];
+		double[] left = new double[cycles];
+		double[] right = new double[cycles];
+
+		double t = 0, r = 0;
+		for (int i = 0; i < cycles; i++) {
+			t = limit(0.95 * t + 0.1 * random.nextGaussian());
+			r = limit(0.95 * r + 0.1 * random.nextGaussian());
+
+			throttle[i] = t;
+			turn[i] = r;
+			quickTurn[i] = Math.abs(t) < 0.1;
+			reference(t, r, left, right, i);
+		}
+
+		return new CheesyDriveTuner(throttle, turn, quickTurn, left, right);
+	}
+
+	/**
+	 * Calculates the outputs a driver wants for a pair of stick inputs: plain
+	 * arcade drive, scaled down to stay within +/- 1. Depends only on the
+	 * inputs, not on any drive gains.
+	 */
+	private static void reference(double throttle, double turn, double[] left, double[] right, int i) {
+		double l = throttle - turn;
+		double r = throttle + turn;
+		double scale = Math.max(1, Math.max(Math.abs(l), Math.abs(r)));
+		left[i] = l / scale;
+		right[i] = r / scale;
+	}
+
+	/**
+	 * Scores every combination of the given gains in parallel.
+	 * 
+	 * @param skimGains
+	 *            skim gains to try
+	 * @param turnGains
+	 *            turn gains to try
+	 * @param throttleThresholds
+	 *            throttle thresholds to try
+	 * @param alternate
+	 *            {@code true} to score the alternate method, {@code false} to
+	 *            score the quickturn button method
+	 * @param saturationWeight
+	 *            how much a fully saturated trace adds to the score
+	 * @return the results, best first
+	 */
+	public Result[] tune(double[] skimGains, double[] turnGains, double[] throttleThresholds, boolean alternate,
+			double saturationWeight) {
+		Result[] results = new Result[skimGains.length * turnGains.length * throttleThresholds.length];
+
+		ForkJoinPool.commonPool().invoke(new ScoreTask(skimGains, turnGains, throttleThresholds, alternate,
+				saturationWeight, results, 0, results.length));
+
+		Arrays.sort(results);
+		return results;
+	}
+
+	/**
+	 * Scores one set of gains over the whole trace.
+	 * 
+	 * @param drive
+	 *            gains to score
+	 * @param alternate
+	 *            {@code true} to score the alternate method, {@code false} to
+	 *            score the quickturn button method
+	 * @param saturationWeight
+	 *            how much a fully saturated trace adds to the score
+	 * @return the score of the gains
+	 */
+	public Result evaluate(CheesyDrive drive, boolean alternate, double saturationWeight) {
+		double[] out = new double[2];
+		double squaredError = 0;
+		long saturated = 0;
+
+		for (int i = 0; i < throttle.length; i++) {
+			boolean limited = alternate ? drive.calculateAlt(throttle[i], turn[i], out)
+					: drive.calculate(throttle[i], turn[i], quickTurn[i], out);
+			if (limited) {
+				saturated++;
+			}
+			double dl = out[0] - targetLeft[i];
+			double dr = out[1] - targetRight[i];
+			squaredError += dl * dl + dr * dr;
+		}
+
+		int n = Math.max(1, throttle.length);
+		double trackingError = Math.sqrt(squaredError / (2 * n));
+		double saturation = (double) saturated / n;
+
+		return new Result(drive.getSkimGain(), drive.getTurnGain(), drive.getThrottleThreshold(), trackingError,
+				saturation, trackingError + saturationWeight * saturation);
+	}
+
+	/**
+	 * Scores a range of the gain grid, splitting it in half until it is small
+	 * enough to score directly
+	 */
+	private final class ScoreTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final double[] skimGains, turnGains, throttleThresholds;
+		private final boolean alternate;
+		private final double saturationWeight;
+		private final Result[] results;
+		private final int from, to;
+
+		ScoreTask(double[] skimGains, double[] turnGains, double[] throttleThresholds, boolean alternate,
+				double saturationWeight, Result[] results, int from, int to) {
+			this.skimGains = skimGains;
+			this.turnGains = turnGains;
+			this.throttleThresholds = throttleThresholds;
+			this.alternate = alternate;
+			this.saturationWeight = saturationWeight;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= TASK_SIZE) {
+				for (int i = from; i < to; i++) {
+					int k = i % throttleThresholds.length;
+					int j = (i / throttleThresholds.length) % turnGains.length;
+					int s = i / (throttleThresholds.length * turnGains.length);
+					results[i] = evaluate(new CheesyDrive(skimGains[s], turnGains[j], throttleThresholds[k]),
+							alternate, saturationWeight);
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(split(from, mid), split(mid, to));
+		}
+
+		private ScoreTask split(int start, int end) {
+			return new ScoreTask(skimGains, turnGains, throttleThresholds, alternate, saturationWeight, results,
+					start, end);
+		}
+	}
+
+	private static double limit(double arg) {
+		if (arg > 1) {
+			return 1;
+		} else if (arg < -1) {
+			return -1;
+		} else {
+			return arg;
+		}
+	}
+}
@@ -6,6 +6,11 @@ import src.libs.RobotDrive;
  * A Java implementation of Team 33's Culver Drive.
  * <p>
  * Credit goes to Team 33's Bryan Culver for original idea and math.
+ * <p>
+ * The batch methods limit and pick the throttle sign with {@code Math.min} and
+ * {@code Math.copySign} rather than branches. They have
+ * no {@code jdk.incubator.vector} path: that module needs
+ * {@code --add-modules} at launch and is not in the roboRIO JRE.
  * 
  * @author Alec Minchington, Team 226
  * 
@@ -41,6 +46,30 @@ public final class CulverDrive {
 	private static final double ONE_FORTY_FIFTH = 0.022222;
 	private static final double ONE_FIFTH = 0.2;
 
+	private static boolean fastMath = false;
+
+	/**
+	 * Selects the trig used to find the steering stick angle. The fast
+	 * {@link FastTrig#atan2Degrees} kernel puts the angle within about 1e-6
+	 * degrees of the exact result. Tables built while this is enabled are
+	 * sampled with the fast kernel.
+	 * <p>
+	 * 
+	 * @param enabled
+	 *            {@code true} to use {@link FastTrig}, {@code false} to use
+	 *            {@link Math}
+	 */
+	public static void setFastMath(boolean enabled) {
+		fastMath = enabled;
+	}
+
+	/**
+	 * @return {@code true} if the steering stick angle uses {@link FastTrig}
+	 */
+	public static boolean isFastMath() {
+		return fastMath;
+	}
+
 	// CULVER DRIVE
 
 	/**
@@ -61,9 +90,54 @@ public final class CulverDrive {
 	 *            {@code false} to disable
 	 */
 	public static void culverDrive(RobotDrive rd, double throttle, double x, double y, boolean quickTurn, boolean squaredInputs) {
+		long start = DriveProfiler.start();
+
 		double radius = culverDriveCalculateRadius(throttle, x, y);
 		double raw = culverDriveCalculateRaw(x, y);
 
+		culverDriveOutput(rd, throttle, radius, raw, quickTurn, squaredInputs, DriveProfiler.Stage.CULVER_DRIVE,
+				start);
+	}
+
+	/**
+	 * Calculates motor output for Culver Drive using the 'quickturn' button
+	 * method, looking up the steering curves in a precomputed table instead of
+	 * calculating them.
+	 * <p>
+	 * 
+	 * @param rd
+	 *            RobotDrive object to be driven
+	 * @param table
+	 *            precomputed Culver Drive curves
+	 * @param throttle
+	 *            throttle value
+	 * @param x
+	 *            x coordinate of the steering stick
+	 * @param y
+	 *            y coordinate of the steering stick
+	 * @param quickTurn
+	 *            {@code true} to enable turning while throttle is 0,
+	 *            {@code false} to disable
+	 */
+	public static void culverDrive(RobotDrive rd, CulverDriveTable table, double throttle, double x, double y,
+			boolean quickTurn, boolean squaredInputs) {
+		long start = DriveProfiler.start();
+
+		double radius = throttle * table.getRadius(x, y);
+		double raw = table.getRaw(x, y);
+
+		culverDriveOutput(rd, throttle, radius, raw, quickTurn, squaredInputs, DriveProfiler.Stage.CULVER_DRIVE,
+				start);
+	}
+
+	/**
+	 * Combines the throttle with the 'radius' and 'raw' elements for the
+	 * 'quickturn' button method and drives the motors. The calculation is
+	 * recorded to {@code stage} before the motors are written, so the profile
+	 * does not include {@link RobotDrive#tankDrive}.
+	 */
+	private static void culverDriveOutput(RobotDrive rd, double throttle, double radius, double raw,
+			boolean quickTurn, boolean squaredInputs, DriveProfiler.Stage stage, long start) {
 		double left = throttle;
 		double right = throttle;
 
@@ -81,6 +155,8 @@ public final class CulverDrive {
 			}
 		}
 
+		DriveProfiler.stop(stage, start);
+
 		rd.tankDrive(limit(left), limit(right), squaredInputs);
 	}
 
@@ -99,9 +175,51 @@ public final class CulverDrive {
 	 *            y coordinate of the steering stick
 	 */
 	public static void culverDriveAlt(RobotDrive rd, double throttle, double x, double y, boolean squaredInputs) {
+		long start = DriveProfiler.start();
+
 		double radius = culverDriveCalculateRadius(throttle, x, y);
 		double raw = culverDriveCalculateAltRaw(x, y);
 
+		culverDriveAltOutput(rd, throttle, radius, raw, squaredInputs, DriveProfiler.Stage.CULVER_DRIVE_ALT,
+				start);
+	}
+
+	/**
+	 * Calculates motor output for Culver Drive using the 'alternate raw' (no
+	 * quickturn) method, looking up the steering curves in a precomputed table
+	 * instead of calculating them.
+	 * <p>
+	 * 
+	 * @param rd
+	 *            RobotDrive object to be driven
+	 * @param table
+	 *            precomputed Culver Drive curves
+	 * @param throttle
+	 *            throttle value
+	 * @param x
+	 *            x coordinate of the steering stick
+	 * @param y
+	 *            y coordinate of the steering stick
+	 */
+	public static void culverDriveAlt(RobotDrive rd, CulverDriveTable table, double throttle, double x, double y,
+			boolean squaredInputs) {
+		long start = DriveProfiler.start();
+
+		double radius = throttle * table.getRadius(x, y);
+		double raw = table.getAltRaw(x, y);
+
+		culverDriveAltOutput(rd, throttle, radius, raw, squaredInputs, DriveProfiler.Stage.CULVER_DRIVE_ALT,
+				start);
+	}
+
+	/**
+	 * Combines the throttle with the 'radius' and 'alternate raw' elements for
+	 * the 'alternate raw' method and drives the motors. The calculation is
+	 * recorded to {@code stage} before the motors are written, as in
+	 * {@link #culverDriveOutput}.
+	 */
+	private static void culverDriveAltOutput(RobotDrive rd, double throttle, double radius, double raw,
+			boolean squaredInputs, DriveProfiler.Stage stage, long start) {
 		double left = throttle;
 		double right = throttle;
 
@@ -114,9 +232,84 @@ public final class CulverDrive {
 			right -= radius + raw;
 		}
 
+		DriveProfiler.stop(stage, start);
+
 		rd.tankDrive(limit(left), limit(right), squaredInputs);
 	}
 
+	// BATCH METHODS
+
+	/**
+	 * Calculates Culver Drive output using the 'quickturn' button method for
+	 * many samples at once, looking up the steering curves in a precomputed
+	 * table. Gives the same outputs as the per-sample table method.
+	 * <p>
+	 * 
+	 * @param table
+	 *            precomputed Culver Drive curves
+	 * @param throttle
+	 *            throttle value of each sample
+	 * @param x
+	 *            x coordinate of the steering stick for each sample
+	 * @param y
+	 *            y coordinate of the steering stick for each sample
+	 * @param quickTurn
+	 *            quickturn state of each sample
+	 * @param left
+	 *            array to receive the left output of each sample
+	 * @param right
+	 *            array to receive the right output of each sample
+	 * @param n
+	 *            number of samples
+	 */
+	public static void culverDriveBatch(CulverDriveTable table, double[] throttle, double[] x, double[] y,
+			boolean[] quickTurn, double[] left, double[] right, int n) {
+		for (int i = 0; i < n; i++) {
+			double t = throttle[i];
+
+			// Reversing the radius when moving backwards is the same as scaling by |throttle|
+			double turn = quickTurn[i] ? table.getRaw(x[i], y[i]) : Math.abs(t) * table.getRadius(x[i], y[i]);
+
+			left[i] = clamp(t + turn);
+			right[i] = clamp(t - turn);
+		}
+	}
+
+	/**
+	 * Calculates Culver Drive output using the 'alternate raw' (no quickturn)
+	 * method for many samples at once, looking up the steering curves in a
+	 * precomputed table. Gives the same outputs as the per-sample table method.
+	 * <p>
+	 * 
+	 * @param table
+	 *            precomputed Culver Drive curves
+	 * @param throttle
+	 *            throttle value of each sample
+	 * @param x
+	 *            x coordinate of the steering stick for each sample
+	 * @param y
+	 *            y coordinate of the steering stick for each sample
+	 * @param left
+	 *            array to receive the left output of each sample
+	 * @param right
+	 *            array to receive the right output of each sample
+	 * @param n
+	 *            number of samples
+	 */
+	public static void culverDriveAltBatch(CulverDriveTable table, double[] throttle, double[] x, double[] y,
+			double[] left, double[] right, int n) {
+		for (int i = 0; i < n; i++) {
+			double t = throttle[i];
+			// Zero throttle takes the negative sign, like the per-sample method:
+			// t - MIN_VALUE is negative for both zeros and positive for any t > 0
+			double sign = Math.copySign(1, t - Double.MIN_VALUE);
+			double turn = sign * (t * table.getRadius(x[i], y[i]) + table.getAltRaw(x[i], y[i]));
+
+			left[i] = clamp(t - turn);
+			right[i] = clamp(t + turn);
+		}
+	}
+
 	// CULVER DRIVE CALCULATION METHODS
 
 	/**
@@ -133,7 +326,7 @@ public final class CulverDrive {
 	 *         angle theta from vertical, an enablement curve, and a calibrated
 	 *         gain.
 	 */
-	private static double culverDriveCalculateRadius(double throttle, double x, double y) {
+	static double culverDriveCalculateRadius(double throttle, double x, double y) {
 		double r = Math.sqrt((x * x) + (y * y));
 		double theta = getThetaFromVertical(x, y);
 
@@ -153,7 +346,7 @@ public final class CulverDrive {
 	 *         angle theta from vertical, an enablement curve, and a calibrated
 	 *         gain.
 	 */
-	private static double culverDriveCalculateRaw(double x, double y) {
+	static double culverDriveCalculateRaw(double x, double y) {
 		double r = Math.sqrt((x * x) + (y * y));
 		double theta = getThetaFromVertical(x, y);
 
@@ -173,7 +366,7 @@ public final class CulverDrive {
 	 *         angle theta form vertical, an alternate enablement curve, and a
 	 *         calibrated gain.
 	 */
-	private static double culverDriveCalculateAltRaw(double x, double y) {
+	static double culverDriveCalculateAltRaw(double x, double y) {
 		double r = Math.sqrt((x * x) + (y * y));
 		double theta = getThetaFromVertical(x, y);
 
@@ -198,6 +391,9 @@ public final class CulverDrive {
 		 * (theta <= -180) { theta += 360; } return theta;
 		 */
 		// 0.0 is added to fix rounding to -0.0
+		if (fastMath) {
+			return 0.0 + (-FastTrig.atan2Degrees(x, y));
+		}
 		return 0.0 + (-Math.toDegrees(Math.atan2(x, y)));
 	}
 
@@ -309,4 +505,15 @@ public final class CulverDrive {
 			return arg;
 		}
 	}
+
+	/**
+	 * Limits the input to +/- 1 without branching, for the batch methods.
+	 * 
+	 * @param arg
+	 *            the number to be limited
+	 * @return <b>arg</b> limited to +/- 1
+	 */
+	private static double clamp(double arg) {
+		return Math.copySign(Math.min(Math.abs(arg), 1), arg);
+	}
 }
@@ -0,0 +1,161 @@
+package src.libs;
+
+/**
+ * Precomputed lookup table of the Culver Drive steering curves over the
+ * steering stick's (x, y) range, for use with the table overloads of
+ * {@link CulverDrive#culverDrive} and {@link CulverDrive#culverDriveAlt}.
+ * <p>
+ * The table is sampled once from the exact Culver Drive functions, which stay
+ * the reference implementation, and looked up with bilinear interpolation. A
+ * finer resolution trades memory for accuracy; use {@link #getMaxDeviation} to
+ * check the error of a given resolution. The error shrinks roughly in
+ * proportion to the cell size and is largest where the 'alternate raw' curve
+ * reverses at the back of the stick (about 0.022 at a resolution of 256).
+ *
+ * @author Team 226
+ *
+ */
+public class CulverDriveTable {
+
+	private final int resolution;
+	private final double cellsPerUnit;
+
+	/**
+	 * Curve values at each grid point, row major by y then x. The 'radius'
+	 * element is stored per unit of throttle.
+	 */
+	private final double[] radius;
+	private final double[] raw;
+	private final double[] altRaw;
+
+	/**
+	 * Construct a new CulverDriveTable.
+	 *
+	 * @param resolution
+	 *            number of cells along each stick axis
+	 */
+	public CulverDriveTable(int resolution) {
+		if (resolution < 1) {
+			throw new IllegalArgumentException("Resolution must be at least 1");
+		}
+		this.resolution = resolution;
+		this.cellsPerUnit = resolution / 2.0;
+
+		int points = resolution + 1;
+		radius = new double[points * points];
+		raw = new double[points * points];
+		altRaw = new double[points * points];
+
+		for (int j = 0; j < points; j++) {
+			double y = -1 + j / cellsPerUnit;
+			for (int i = 0; i < points; i++) {
+				double x = -1 + i / cellsPerUnit;
+				int index = j * points + i;
+
+				radius[index] = CulverDrive.culverDriveCalculateRadius(1, x, y);
+				raw[index] = CulverDrive.culverDriveCalculateRaw(x, y);
+				altRaw[index] = CulverDrive.culverDriveCalculateAltRaw(x, y);
+			}
+		}
+	}
+
+	/**
+	 * @param x
+	 *            x coordinate of the steering stick
+	 * @param y
+	 *            y coordinate of the steering stick
+	 * @return the 'radius' element for a throttle of {@code 1}
+	 */
+	public double getRadius(double x, double y) {
+		return lookup(radius, x, y);
+	}
+
+	/**
+	 * @param x
+	 *            x coordinate of the steering stick
+	 * @param y
+	 *            y coordinate of the steering stick
+	 * @return the 'raw' element
+	 */
+	public double getRaw(double x, double y) {
+		return lookup(raw, x, y);
+	}
+
+	/**
+	 * @param x
+	 *            x coordinate of the steering stick
+	 * @param y
+	 *            y coordinate of the steering stick
+	 * @return the 'alternate raw' element
+	 */
+	public double getAltRaw(double x, double y) {
+		return lookup(altRaw, x, y);
+	}
+
+	/**
+	 * @return number of cells along each stick axis
+	 */
+	public int getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * Compares every table against the exact Culver Drive functions on an evenly
+	 * spaced grid of stick positions. Intended for tests and tuning, not for use
+	 * in the control loop.
+	 *
+	 * @param samples
+	 *            number of sample points along each stick axis
+	 * @return the largest absolute difference found between a table and its
+	 *         exact function
+	 */
+	public double getMaxDeviation(int samples) {
+		double max = 0;
+		for (int j = 0; j < samples; j++) {
+			double y = -1 + 2.0 * j / (samples - 1);
+			for (int i = 0; i < samples; i++) {
+				double x = -1 + 2.0 * i / (samples - 1);
+
+				max = Math.max(max, Math.abs(getRadius(x, y) - CulverDrive.culverDriveCalculateRadius(1, x, y)));
+				max = Math.max(max, Math.abs(getRaw(x, y) - CulverDrive.culverDriveCalculateRaw(x, y)));
+				max = Math.max(max, Math.abs(getAltRaw(x, y) - CulverDrive.culverDriveCalculateAltRaw(x, y)));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Bilinearly interpolates a table at the given stick position. Positions
+	 * outside of +/- 1 are clamped to the edge of the table.
+	 */
+	private double lookup(double[] table, double x, double y) {
+		double fx = (limit(x) + 1) * cellsPerUnit;
+		double fy = (limit(y) + 1) * cellsPerUnit;
+
+		int i = Math.min((int) fx, resolution - 1);
+		int j = Math.min((int) fy, resolution - 1);
+
+		double tx = fx - i;
+		double ty = fy - j;
+
+		int index = j * (resolution + 1) + i;
+		double bottom = table[index] + tx * (table[index + 1] - table[index]);
+		index += resolution + 1;
+		double top = table[index] + tx * (table[index + 1] - table[index]);
+
+		return bottom + ty * (top - bottom);
+	}
+
+	/**
+	 * Limits the input to +/- 1.
+	 */
+	private static double limit(double arg) {
+		if (arg > 1) {
+			return 1;
+		} else if (arg < -1) {
+			return -1;
+		} else {
+			return arg;
+		}
+	}
+}
@@ -0,0 +1,166 @@
+package src.libs;
+
+/**
+ * Precomputed lookup table of the curve to output ratio used by
+ * {@link RobotDrive#drive}, for a fixed sensitivity.
+ * <p>
+ * For a curve magnitude between 0 and 1 the outside output is multiplied by
+ * {@code (ln|curve| + s) / (ln|curve| - s)}, which is smooth there for any
+ * sensitivity {@code s > 0}. The table samples it on an even grid and looks it
+ * up with linear interpolation. The first cell is left to the exact path,
+ * because the logarithm is too steep near 0 to interpolate. So are curves
+ * beyond +/- 1 and sensitivities of 0 or less. A guaranteed bound on the
+ * error against the exact path is calculated when the table is built; see
+ * {@link #getMaxError}.
+ *
+ * @author Team 226
+ *
+ */
+public class CurveRatioTable {
+
+	/**
+	 * Allowance for rounding in the interpolation and the exact path, both of
+	 * which work on values of magnitude at most 1
+	 */
+	private static final double ROUNDING_ERROR = 1e-14;
+
+	/**
+	 * Pieces each cell is split into when bounding its second derivative
+	 */
+	private static final int BOUND_PIECES = 16;
+
+	private final double sensitivity;
+	private final int size;
+
+	/**
+	 * Smallest curve magnitude the table covers
+	 */
+	private final double minCurve;
+
+	/**
+	 * Inverse ratio at each cell boundary, indexed by curve magnitude times the
+	 * size
+	 */
+	private final double[] inverseRatio;
+
+	private final double maxError;
+
+	/**
+	 * Construct a new CurveRatioTable.
+	 *
+	 * @param sensitivity
+	 *            turning sensitivity, as given to {@link RobotDrive#setSensitivity}
+	 * @param size
+	 *            number of cells over a curve magnitude of 0 to 1
+	 */
+	public CurveRatioTable(double sensitivity, int size) {
+		if (size < 2) {
+			throw new IllegalArgumentException("Size must be at least 2");
+		}
+		this.sensitivity = sensitivity;
+		this.size = size;
+		this.minCurve = 1.0 / size;
+
+		inverseRatio = new double[size + 1];
+		for (int i = 1; i <= size; i++) {
+			inverseRatio[i] = exact((double) i / size);
+		}
+
+		double max = 0;
+		if (sensitivity > 0) {
+			for (int i = 1; i < size; i++) {
+				max = Math.max(max, cellErrorBound(i));
+			}
+		}
+		maxError = max + ROUNDING_ERROR;
+	}
+
+	/**
+	 * Bounds the interpolation error in one cell by {@code h^2 / 8} times the
+	 * largest second derivative there. With {@code u = ln(c) - s}, the inverse
+	 * ratio is {@code 1 + 2s / u} and its second derivative is
+	 * {@code 2s (u + 2) / (c^2 u^3)}. Writing {@code w = -u}, the factor
+	 * {@code |2 - w| / w^3} falls for {@code w} below 2, rises to a peak of 1/27
+	 * at 3 and falls after, so its largest value over a piece of the cell is at
+	 * an end of the piece or at that peak. Bounding each piece separately keeps
+	 * the bound from pairing the largest {@code 1 / c^2} with a factor from the
+	 * other end of the cell.
+	 */
+	private double cellErrorBound(int i) {
+		double h = 1.0 / size;
+
+		double maxSecondDerivative = 0;
+		for (int p = 0; p < BOUND_PIECES; p++) {
+			double low = (i + (double) p / BOUND_PIECES) * h;
+			double high = (i + (double) (p + 1) / BOUND_PIECES) * h;
+
+			double wLow = sensitivity - Math.log(high);
+			double wHigh = sensitivity - Math.log(low);
+			double factor = Math.max(curvatureFactor(wLow), curvatureFactor(wHigh));
+			if (wLow < 3 && wHigh > 3) {
+				factor = Math.max(factor, 1.0 / 27);
+			}
+
+			maxSecondDerivative = Math.max(maxSecondDerivative, 2 * sensitivity / (low * low) * factor);
+		}
+
+		return h * h / 8 * maxSecondDerivative;
+	}
+
+	private static double curvatureFactor(double w) {
+		return Math.abs(2 - w) / (w * w * w);
+	}
+
+	/**
+	 * @param curve
+	 *            curve given to {@link RobotDrive#drive}
+	 * @return {@code true} if {@link #getInverseRatio} can be used for the curve,
+	 *         {@code false} if it must be calculated exactly
+	 */
+	public boolean covers(double curve) {
+		double magnitude = Math.abs(curve);
+		return sensitivity > 0 && magnitude >= minCurve && magnitude <= 1;
+	}
+
+	/**
+	 * Looks up the factor the outside output is multiplied by. Only valid for
+	 * curves that the table {@link #covers}.
+	 *
+	 * @param curve
+	 *            curve given to {@link RobotDrive#drive}
+	 * @return the inverse of the ratio used by {@link RobotDrive#drive}
+	 */
+	public double getInverseRatio(double curve) {
+		double cells = Math.abs(curve) * size;
+		int i = Math.min((int) cells, size - 1);
+		double t = cells - i;
+		return inverseRatio[i] + t * (inverseRatio[i + 1] - inverseRatio[i]);
+	}
+
+	/**
+	 * @return turning sensitivity the table was built for
+	 */
+	public double getSensitivity() {
+		return sensitivity;
+	}
+
+	/**
+	 * @return number of cells over a curve magnitude of 0 to 1
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return upper bound on the difference between the table and the exact
+	 *         inverse ratio over every curve the table covers, as a fraction of
+	 *         the output magnitude
+	 */
+	public double getMaxError() {
+		return maxError;
+	}
+
+	private double exact(double curve) {
+		return 1 / RobotDrive.curveRatio(curve, sensitivity);
+	}
+}
@@ -0,0 +1,278 @@
+package src.libs;
+
+/**
+ * Headless physics model of a differential drive base, for testing drive code
+ * without a robot.
+ * <p>
+ * Connect a {@link RobotDrive} to {@link #getLeftSink()} and
+ * {@link #getRightSink()}, then call {@link #step} at a fixed time step. Each
+ * side is modeled as DC motors geared to a wheel, driving the chassis through
+ * a traction force that saturates as the wheel slips. The battery voltage sags
+ * with the current drawn. Stepping allocates nothing and runs thousands of
+ * times faster than real time.
+ *
+ * @author Team 226
+ *
+ */
+public class DifferentialDriveSim {
+
+	private static final double GRAVITY = 9.81;
+
+	/**
+	 * Largest internal time step in seconds, so the stiff slip model stays stable
+	 */
+	private static final double MAX_SUBSTEP = 0.001;
+
+	/**
+	 * Wheel slip speed in m/s at which traction reaches about 76% of its limit
+	 */
+	private static final double SLIP_SPEED = 0.1;
+
+	private final double mass;
+	private final double moment;
+	private final double trackWidth;
+	private final double wheelRadius;
+	private final double gearRatio;
+	private final int motorsPerSide;
+	private final double wheelInertia;
+	private final double friction;
+	private final double batteryVolts;
+	private final double batteryResistance;
+
+	/**
+	 * Motor constants: winding resistance, torque per amp and volts per rad/s
+	 */
+	private final double resistance;
+	private final double kT;
+	private final double kV;
+
+	private double leftCommand, rightCommand;
+	private final MotorSink leftSink = output -> leftCommand = limit(output);
+	private final MotorSink rightSink = output -> rightCommand = limit(output);
+
+	private double x, y, heading;
+	private double velocity, angularVelocity;
+	private double leftWheelSpeed, rightWheelSpeed;
+	private double busVolts;
+	private double current;
+
+	/**
+	 * Construct a new DifferentialDriveSim of a typical kit of parts drive base:
+	 * 54 kg, two CIMs per side through a 10.71:1 gearbox to 6 inch wheels.
+	 */
+	public DifferentialDriveSim() {
+		this(54, 6, 0.6, 0.0762, 10.71, 2, 0.05, 1.1, 12.6, 0.018, 2.42, 133, 2.7, 5310);
+	}
+
+	/**
+	 * Construct a new DifferentialDriveSim.
+	 *
+	 * @param mass
+	 *            robot mass in kg
+	 * @param moment
+	 *            robot moment of inertia about its center in kg m^2
+	 * @param trackWidth
+	 *            distance between the left and right wheels in m
+	 * @param wheelRadius
+	 *            wheel radius in m
+	 * @param gearRatio
+	 *            motor turns per wheel turn
+	 * @param motorsPerSide
+	 *            number of motors on each side
+	 * @param wheelInertia
+	 *            rotating inertia of each side, seen at the wheel, in kg m^2
+	 * @param friction
+	 *            coefficient of friction between the wheels and the floor
+	 * @param batteryVolts
+	 *            open circuit battery voltage
+	 * @param batteryResistance
+	 *            battery and wiring resistance in ohms
+	 * @param stallTorque
+	 *            motor stall torque in N m at 12 V
+	 * @param stallCurrent
+	 *            motor stall current in A at 12 V
+	 * @param freeCurrent
+	 *            motor free current in A at 12 V
+	 * @param freeSpeed
+	 *            motor free speed in RPM at 12 V
+	 */
+	public DifferentialDriveSim(double mass, double moment, double trackWidth, double wheelRadius, double gearRatio,
+			int motorsPerSide, double wheelInertia, double friction, double batteryVolts, double batteryResistance,
+			double stallTorque, double stallCurrent, double freeCurrent, double freeSpeed) {
+		this.mass = mass;
+		this.moment = moment;
+		this.trackWidth = trackWidth;
+		this.wheelRadius = wheelRadius;
+		this.gearRatio = gearRatio;
+		this.motorsPerSide = motorsPerSide;
+		this.wheelInertia = wheelInertia;
+		this.friction = friction;
+		this.batteryVolts = batteryVolts;
+		this.batteryResistance = batteryResistance;
+
+		this.resistance = 12 / stallCurrent;
+		this.kT = stallTorque / stallCurrent;
+		this.kV = (12 - freeCurrent * resistance) / (freeSpeed * 2 * Math.PI / 60);
+
+		reset();
+	}
+
+	/**
+	 * @return sink for the left side's percent output
+	 */
+	public MotorSink getLeftSink() {
+		return leftSink;
+	}
+
+	/**
+	 * @return sink for the right side's percent output
+	 */
+	public MotorSink getRightSink() {
+		return rightSink;
+	}
+
+	/**
+	 * Advances the simulation, holding the last commanded outputs.
+	 *
+	 * @param dt
+	 *            time step in seconds
+	 */
+	public void step(double dt) {
+		int substeps = (int) Math.ceil(dt / MAX_SUBSTEP);
+		double h = dt / substeps;
+		for (int i = 0; i < substeps; i++) {
+			substep(h);
+		}
+	}
+
+	private void substep(double h) {
+		double leftCurrent = motorCurrent(leftCommand, leftWheelSpeed);
+		double rightCurrent = motorCurrent(rightCommand, rightWheelSpeed);
+
+		// Current drawn from the battery by each side's speed controller
+		current = motorsPerSide * (Math.abs(leftCommand * leftCurrent) + Math.abs(rightCommand * rightCurrent));
+
+		double leftTorque = motorsPerSide * kT * leftCurrent * gearRatio;
+		double rightTorque = motorsPerSide * kT * rightCurrent * gearRatio;
+
+		double halfTrack = trackWidth / 2;
+		double maxTraction = friction * mass * GRAVITY / 2;
+
+		double leftSlip = leftWheelSpeed * wheelRadius - (velocity - angularVelocity * halfTrack);
+		double rightSlip = rightWheelSpeed * wheelRadius - (velocity + angularVelocity * halfTrack);
+		double leftForce = maxTraction * Math.tanh(leftSlip / SLIP_SPEED);
+		double rightForce = maxTraction * Math.tanh(rightSlip / SLIP_SPEED);
+
+		leftWheelSpeed += (leftTorque - leftForce * wheelRadius) / wheelInertia * h;
+		rightWheelSpeed += (rightTorque - rightForce * wheelRadius) / wheelInertia * h;
+
+		velocity += (leftForce + rightForce) / mass * h;
+		angularVelocity += (rightForce - leftForce) * halfTrack / moment * h;
+
+		double midHeading = heading + angularVelocity * h / 2;
+		x += velocity * Math.cos(midHeading) * h;
+		y += velocity * Math.sin(midHeading) * h;
+		heading += angularVelocity * h;
+
+		busVolts = Math.max(0, batteryVolts - batteryResistance * current);
+	}
+
+	/**
+	 * Calculates the current through one motor.
+	 *
+	 * @param command
+	 *            percent output, already limited to [-1, 1]
+	 * @param wheelSpeed
+	 *            wheel speed in rad/s
+	 * @return motor current in A
+	 */
+	private double motorCurrent(double command, double wheelSpeed) {
+		double volts = command * busVolts;
+		return (volts - kV * wheelSpeed * gearRatio) / resistance;
+	}
+
+	/**
+	 * Puts the robot back at the origin, at rest, with a fresh battery.
+	 */
+	public void reset() {
+		x = y = heading = 0;
+		velocity = angularVelocity = 0;
+		leftWheelSpeed = rightWheelSpeed = 0;
+		leftCommand = rightCommand = 0;
+		current = 0;
+		busVolts = batteryVolts;
+	}
+
+	/**
+	 * @return field x position in m
+	 */
+	public double getX() {
+		return x;
+	}
+
+	/**
+	 * @return field y position in m
+	 */
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * @return counter-clockwise heading in radians
+	 */
+	public double getHeading() {
+		return heading;
+	}
+
+	/**
+	 * @return forward velocity in m/s
+	 */
+	public double getVelocity() {
+		return velocity;
+	}
+
+	/**
+	 * @return counter-clockwise angular velocity in rad/s
+	 */
+	public double getAngularVelocity() {
+		return angularVelocity;
+	}
+
+	/**
+	 * @return left wheel surface speed in m/s
+	 */
+	public double getLeftWheelSpeed() {
+		return leftWheelSpeed * wheelRadius;
+	}
+
+	/**
+	 * @return right wheel surface speed in m/s
+	 */
+	public double getRightWheelSpeed() {
+		return rightWheelSpeed * wheelRadius;
+	}
+
+	/**
+	 * @return battery voltage under load
+	 */
+	public double getBatteryVoltage() {
+		return busVolts;
+	}
+
+	/**
+	 * @return total current drawn from the battery in A
+	 */
+	public double getCurrent() {
+		return current;
+	}
+
+	private static double limit(double arg) {
+		if (arg > 1) {
+			return 1;
+		} else if (arg < -1) {
+			return -1;
+		} else {
+			return arg;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package src.libs;
+
+/**
+ * Records how long each drive calculation takes into a
+ * {@link LatencyHistogram} per drive method.
+ * <p>
+ * Off by default. While off, timing a call costs one static field read at the
+ * start and one at the end. Meant to be used from the main robot thread.
+ * 
+ * @author Team 226
+ */
+public final class DriveProfiler {
+
+	/**
+	 * The drive calculations that are timed. The drive method stages stop
+	 * before the motors are written; rate limiting and the motor writes of
+	 * {@link RobotDrive#tankDrive} are timed as their own stages.
+	 */
+	public enum Stage {
+		CHEESY_DRIVE, CHEESY_DRIVE_ALT, CULVER_DRIVE, CULVER_DRIVE_ALT, SWERVE_4_WHEEL, SWERVE_N_WHEEL, TANK_RATE_LIMIT,
+		TANK_WRITE, SWERVE_RATE_LIMIT;
+
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		/**
+		 * @return the histogram of this stage's durations
+		 */
+		public LatencyHistogram getHistogram() {
+			return histogram;
+		}
+	}
+
+	private static boolean enabled = false;
+
+	private DriveProfiler() {
+	}
+
+	/**
+	 * Turns timing on or off.
+	 * 
+	 * @param on
+	 *            {@code true} to record durations, {@code false} to stop
+	 */
+	public static void setEnabled(boolean on) {
+		enabled = on;
+	}
+
+	/**
+	 * @return {@code true} if durations are being recorded, {@code false}
+	 *         otherwise
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Marks the start of a timed call.
+	 * 
+	 * @return start time to pass to {@link #stop}
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Marks the end of a timed call and records its duration.
+	 * 
+	 * @param stage
+	 *            drive calculation that was timed
+	 * @param start
+	 *            value returned by {@link #start()}
+	 */
+	public static void stop(Stage stage, long start) {
+		if (enabled && start != 0) {
+			stage.histogram.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Clears the histograms of every stage, for example between matches.
+	 */
+	public static void reset() {
+		for (Stage stage : Stage.values()) {
+			stage.histogram.reset();
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package src.libs;
+
+import java.io.IOException;
+
+import src.util.Clock;
+import src.util.SimulatedClock;
+import src.util.TelemetryReader;
+
+/**
+ * Re-runs recorded driver inputs through a drive algorithm and compares the
+ * results with the outputs recorded in the same log.
+ * <p>
+ * Reads logs written with the {@link DriveTelemetry} layout, streaming records
+ * straight out of the memory-mapped file into the {@link RobotDrive} given to
+ * the constructor. That drive should be configured the way the robot's was,
+ * with the same output deduplication and rate limiting, and the Cheesy Drive
+ * modes run through the given {@link CheesyDrive} so its gains match too.
+ * While replaying, the drive is timed by a {@link SimulatedClock} that follows
+ * the log's timestamps, so rate limiting sees the same loop periods the robot
+ * did. Nothing is allocated per record, so logs with millions of cycles replay
+ * in seconds. Can also be run from the command line:
+ * 
+ * <pre>
+ * java src.libs.DriveReplay log.bin CHEESY_DRIVE [tolerance] [squared] [gains=skim,turn,threshold]
+ *     [dedup=epsilon,interval] [ratelimit=acceleration,deceleration]
+ * </pre>
+ * 
+ * @author Team 226
+ */
+public class DriveReplay {
+
+	/**
+	 * Drive algorithms that can be replayed
+	 */
+	public enum Mode {
+		CHEESY_DRIVE, CHEESY_DRIVE_ALT, CULVER_DRIVE, CULVER_DRIVE_ALT
+	}
+
+	private final CheesyDrive cheesy;
+	private final RobotDrive rd;
+	private final SimulatedClock clock = new SimulatedClock();
+
+	private long cycles;
+	private long differingCycles;
+	private long firstDifferingCycle;
+	private double maxDifference;
+	private double maxDifferenceTimestamp;
+	private double totalDifference;
+
+	/**
+	 * Construct a new DriveReplay with the default Cheesy Drive gains and a
+	 * drive with no output deduplication or rate limiting.
+	 */
+	public DriveReplay() {
+		this(new CheesyDrive(), new RobotDrive(new RecordingMotorSink(1), new RecordingMotorSink(1)));
+	}
+
+	/**
+	 * Construct a new DriveReplay.
+	 * 
+	 * @param cheesy
+	 *            Cheesy Drive gains the robot drove with, used by the Cheesy
+	 *            Drive modes
+	 * @param rd
+	 *            RobotDrive configured like the robot's, normally backed by
+	 *            {@link RecordingMotorSink}s. Its clock is replaced while
+	 *            replaying and restored afterwards.
+	 */
+	public DriveReplay(CheesyDrive cheesy, RobotDrive rd) {
+		this.cheesy = cheesy;
+		this.rd = rd;
+	}
+
+	/**
+	 * Replays a log and records how its outputs differ from the replayed ones.
+	 * 
+	 * @param log
+	 *            log to replay, read from its current position to the end
+	 * @param mode
+	 *            drive algorithm to run the inputs through
+	 * @param squaredInputs
+	 *            {@code true} to square the outputs like the robot did,
+	 *            {@code false} otherwise
+	 * @param tolerance
+	 *            largest output difference that is not counted as differing
+	 */
+	public void replay(TelemetryReader log, Mode mode, boolean squaredInputs, double tolerance) {
+		cycles = 0;
+		differingCycles = 0;
+		firstDifferingCycle = -1;
+		maxDifference = 0;
+		maxDifferenceTimestamp = 0;
+		totalDifference = 0;
+
+		Clock previousClock = rd.getClock();
+		rd.setClock(clock);
+		try {
+			long start = clock.nanoTime();
+			double firstTimestamp = Double.NaN;
+
+			while (log.next()) {
+				if (cycles == 0) {
+					firstTimestamp = log.getTimestamp();
+				}
+				long elapsed = start + Math.round((log.getTimestamp() - firstTimestamp) * 1e9) - clock.nanoTime();
+				if (elapsed > 0) {
+					clock.advance(elapsed);
+				}
+
+				double throttle = log.get(DriveTelemetry.THROTTLE);
+
+				switch (mode) {
+				case CHEESY_DRIVE:
+					cheesy.drive(rd, throttle, log.get(DriveTelemetry.TURN), log.getBoolean(DriveTelemetry.QUICK_TURN),
+							squaredInputs);
+					break;
+				case CHEESY_DRIVE_ALT:
+					cheesy.driveAlt(rd, throttle, log.get(DriveTelemetry.TURN), squaredInputs);
+					break;
+				case CULVER_DRIVE:
+					CulverDrive.culverDrive(rd, throttle, log.get(DriveTelemetry.STEER_X),
+							log.get(DriveTelemetry.STEER_Y), log.getBoolean(DriveTelemetry.QUICK_TURN), squaredInputs);
+					break;
+				case CULVER_DRIVE_ALT:
+					CulverDrive.culverDriveAlt(rd, throttle, log.get(DriveTelemetry.STEER_X),
+							log.get(DriveTelemetry.STEER_Y), squaredInputs);
+					break;
+				}
+
+				double difference = Math.max(Math.abs(rd.getLeftOutput() - log.get(DriveTelemetry.LEFT)),
+						Math.abs(rd.getRightOutput() - log.get(DriveTelemetry.RIGHT)));
+
+				totalDifference += difference;
+				if (difference > maxDifference) {
+					maxDifference = difference;
+					maxDifferenceTimestamp = log.getTimestamp();
+				}
+				if (difference > tolerance) {
+					if (firstDifferingCycle < 0) {
+						firstDifferingCycle = cycles;
+					}
+					differingCycles++;
+				}
+				cycles++;
+			}
+		} finally {
+			rd.setClock(previousClock);
+		}
+	}
+
+	/**
+	 * @return number of cycles replayed
+	 */
+	public long getCycles() {
+		return cycles;
+	}
+
+	/**
+	 * @return number of cycles whose outputs differed by more than the tolerance
+	 */
+	public long getDifferingCycles() {
+		return differingCycles;
+	}
+
+	/**
+	 * @return index of the first cycle that differed by more than the tolerance,
+	 *         or {@code -1} if none did
+	 */
+	public long getFirstDifferingCycle() {
+		return firstDifferingCycle;
+	}
+
+	/**
+	 * @return largest difference between a recorded and a replayed output
+	 */
+	public double getMaxDifference() {
+		return maxDifference;
+	}
+
+	/**
+	 * @return timestamp of the cycle with the largest difference
+	 */
+	public double getMaxDifferenceTimestamp() {
+		return maxDifferenceTimestamp;
+	}
+
+	/**
+	 * @return average over all cycles of the larger of the left and right output
+	 *         differences
+	 */
+	public double getMeanDifference() {
+		return cycles == 0 ? 0 : totalDifference / cycles;
+	}
+
+	/**
+	 * Replays a log from the command line and prints a summary.
+	 * 
+	 * @param args
+	 *            log file path, {@link Mode}, and optionally the tolerance
+	 *            (default 1e-9), {@code squared} to square the outputs, and the
+	 *            robot's configuration as {@code gains=skim,turn,threshold},
+	 *            {@code dedup=epsilon,interval} and
+	 *            {@code ratelimit=acceleration,deceleration}
+	 * @throws IOException
+	 *             if the log cannot be read
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: DriveReplay <log> <mode> [tolerance] [squared] [gains=skim,turn,threshold]"
+					+ " [dedup=epsilon,interval] [ratelimit=acceleration,deceleration]");
+			return;
+		}
+		TelemetryReader log = new TelemetryReader(args[0]);
+		Mode mode = Mode.valueOf(args[1]);
+		double tolerance = 1e-9;
+		boolean squared = false;
+		CheesyDrive cheesy = new CheesyDrive();
+		RobotDrive rd = new RobotDrive(new RecordingMotorSink(1), new RecordingMotorSink(1));
+
+		for (int i = 2; i < args.length; i++) {
+			String arg = args[i];
+			if (arg.equals("squared")) {
+				squared = true;
+			} else if (arg.startsWith("gains=")) {
+				double[] gains = parseValues(arg, 3);
+				cheesy = new CheesyDrive(gains[0], gains[1], gains[2]);
+			} else if (arg.startsWith("dedup=")) {
+				double[] dedup = parseValues(arg, 2);
+				rd.enableOutputDeduplication(dedup[0], dedup[1]);
+			} else if (arg.startsWith("ratelimit=")) {
+				double[] rates = parseValues(arg, 2);
+				rd.enableRateLimiting(rates[0], rates[1]);
+			} else {
+				tolerance = Double.parseDouble(arg);
+			}
+		}
+
+		DriveReplay replay = new DriveReplay(cheesy, rd);
+		long start = System.nanoTime();
+		replay.replay(log, mode, squared, tolerance);
+		double seconds = (System.nanoTime() - start) * 1e-9;
+
+		System.out.println("cycles:          " + replay.getCycles());
+		System.out.println("differing:       " + replay.getDifferingCycles());
+		System.out.println("first differing: " + replay.getFirstDifferingCycle());
+		System.out.println("max difference:  " + replay.getMaxDifference() + " at t="
+				+ replay.getMaxDifferenceTimestamp());
+		System.out.println("mean difference: " + replay.getMeanDifference());
+		System.out.println("replay time:     " + seconds + " s");
+	}
+
+	/**
+	 * Parses the comma separated values of a {@code name=a,b,...} argument.
+	 */
+	private static double[] parseValues(String arg, int count) {
+		String[] parts = arg.substring(arg.indexOf('=') + 1).split(",");
+		if (parts.length != count) {
+			throw new IllegalArgumentException("Expected " + count + " values in " + arg);
+		}
+		double[] values = new double[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = Double.parseDouble(parts[i]);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,109 @@
+package src.libs;
+
+import src.util.TelemetryRecorder;
+
+/**
+ * Standard telemetry record layout for drive inputs and outputs, for use with
+ * {@link TelemetryRecorder}.
+ * <p>
+ * Every record holds the driver inputs, the left/right outputs of a
+ * {@link RobotDrive} and, optionally, the speed and angle of each swerve
+ * module. None of the methods allocate.
+ * 
+ * @author Team 226
+ */
+public final class DriveTelemetry {
+
+	public static final int THROTTLE = 0;
+	public static final int TURN = 1;
+	public static final int QUICK_TURN = 2;
+	public static final int STEER_X = 3;
+	public static final int STEER_Y = 4;
+	public static final int LEFT = 5;
+	public static final int RIGHT = 6;
+
+	/**
+	 * Index of the first swerve module field. Module {@code n}'s speed is at
+	 * {@code MODULES + 2 * n} and its angle right after.
+	 */
+	public static final int MODULES = 7;
+
+	private DriveTelemetry() {
+	}
+
+	/**
+	 * Gets the field names for a drive telemetry log.
+	 * 
+	 * @param swerveModules
+	 *            number of swerve modules to record, {@code 0} for none
+	 * @return field names to pass to {@link TelemetryRecorder}
+	 */
+	public static String[] fields(int swerveModules) {
+		String[] fields = new String[MODULES + 2 * swerveModules];
+		fields[THROTTLE] = "throttle";
+		fields[TURN] = "turn";
+		fields[QUICK_TURN] = "quickTurn";
+		fields[STEER_X] = "steerX";
+		fields[STEER_Y] = "steerY";
+		fields[LEFT] = "left";
+		fields[RIGHT] = "right";
+		for (int i = 0; i < swerveModules; i++) {
+			fields[MODULES + 2 * i] = "module" + i + "Speed";
+			fields[MODULES + 2 * i + 1] = "module" + i + "Angle";
+		}
+		return fields;
+	}
+
+	/**
+	 * Records the driver inputs.
+	 * 
+	 * @param log
+	 *            telemetry log
+	 * @param throttle
+	 *            throttle value
+	 * @param turn
+	 *            turn value, for Cheesy Drive
+	 * @param quickTurn
+	 *            state of the quickturn button
+	 * @param x
+	 *            x coordinate of the steering stick, for Culver Drive
+	 * @param y
+	 *            y coordinate of the steering stick, for Culver Drive
+	 */
+	public static void recordInputs(TelemetryRecorder log, double throttle, double turn, boolean quickTurn,
+			double x, double y) {
+		log.set(THROTTLE, throttle);
+		log.set(TURN, turn);
+		log.set(QUICK_TURN, quickTurn);
+		log.set(STEER_X, x);
+		log.set(STEER_Y, y);
+	}
+
+	/**
+	 * Records the last outputs of a {@link RobotDrive}.
+	 * 
+	 * @param log
+	 *            telemetry log
+	 * @param rd
+	 *            RobotDrive object that was driven
+	 */
+	public static void recordOutputs(TelemetryRecorder log, RobotDrive rd) {
+		log.set(LEFT, rd.getLeftOutput());
+		log.set(RIGHT, rd.getRightOutput());
+	}
+
+	/**
+	 * Records the speed and angle of each swerve module.
+	 * 
+	 * @param log
+	 *            telemetry log
+	 * @param modules
+	 *            module vectors from {@link SwerveDrive#calcWheelVectorsN}
+	 */
+	public static void recordModules(TelemetryRecorder log, Vector[] modules) {
+		for (int i = 0; i < modules.length; i++) {
+			log.set(MODULES + 2 * i, modules[i].magnitude);
+			log.set(MODULES + 2 * i + 1, modules[i].angle);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package src.libs;
+
+/**
+ * Fast trigonometry with a bounded error, for drive math that works on
+ * joystick input and does not need {@link Math}-grade accuracy.
+ * <p>
+ * {@link #atan2} reduces its argument to the first octant and evaluates the
+ * polynomial from Abramowitz &amp; Stegun 4.4.49. {@link #sin} and
+ * {@link #cos} linearly interpolate a table of one full turn. Neither
+ * allocates. The bounds below are the published polynomial error and the
+ * interpolation error of the table. They hold against {@link Math} for every
+ * input to {@link #atan2}, and for {@link #sin} and {@link #cos} within a
+ * million turns of zero, beyond which rounding of the angle itself dominates.
+ *
+ * @author Team 226
+ *
+ */
+public final class FastTrig {
+
+	/**
+	 * Largest absolute error of {@link #atan2} in radians
+	 */
+	public static final double MAX_ATAN2_ERROR = 2e-8;
+
+	/**
+	 * Largest absolute error of {@link #atan2Degrees} in degrees
+	 */
+	public static final double MAX_ATAN2_DEGREES_ERROR = 1.2e-6;
+
+	/**
+	 * Largest absolute error of {@link #sin} and {@link #cos}
+	 */
+	public static final double MAX_SIN_COS_ERROR = 3e-7;
+
+	// ATAN CONSTANTS - A&S 4.4.49 coefficients for atan(z) on [0, 1]
+
+	private static final double A2 = -0.3333314528;
+	private static final double A4 = 0.1999355085;
+	private static final double A6 = -0.1420889944;
+	private static final double A8 = 0.1065626393;
+	private static final double A10 = -0.0752896400;
+	private static final double A12 = 0.0429096138;
+	private static final double A14 = -0.0161657367;
+	private static final double A16 = 0.0028662257;
+
+	private static final double HALF_PI = Math.PI / 2;
+
+	// SINE TABLE CONSTANTS
+
+	private static final int TABLE_BITS = 12;
+	private static final int TABLE_SIZE = 1 << TABLE_BITS;
+	private static final int TABLE_MASK = TABLE_SIZE - 1;
+	private static final double CELLS_PER_RADIAN = TABLE_SIZE / (2 * Math.PI);
+	private static final double CELLS_PER_DEGREE = TABLE_SIZE / 360.0;
+
+	/**
+	 * Sine of each cell boundary over one turn, with one extra entry so
+	 * interpolation never wraps
+	 */
+	private static final double[] SINE = new double[TABLE_SIZE + 1];
+
+	static {
+		for (int i = 0; i <= TABLE_SIZE; i++) {
+			SINE[i] = Math.sin(i / CELLS_PER_RADIAN);
+		}
+	}
+
+	private FastTrig() {
+	}
+
+	/**
+	 * Fast replacement for {@link Math#atan2}, accurate to
+	 * {@link #MAX_ATAN2_ERROR}.
+	 *
+	 * @param y
+	 *            y coordinate
+	 * @param x
+	 *            x coordinate
+	 * @return angle of the point (x, y) in radians, between +/- pi
+	 */
+	public static double atan2(double y, double x) {
+		double ax = Math.abs(x);
+		double ay = Math.abs(y);
+
+		// Defer to Math for the signed zero cases, which a stick at rest can hit,
+		// and for two infinities, whose ratio is undefined
+		if ((ax == 0 && ay == 0) || (ax == Double.POSITIVE_INFINITY && ay == Double.POSITIVE_INFINITY)) {
+			return Math.atan2(y, x);
+		}
+
+		double angle;
+		if (ay > ax) {
+			angle = HALF_PI - atan01(ax / ay);
+		} else {
+			angle = atan01(ay / ax);
+		}
+
+		if (x < 0) {
+			angle = Math.PI - angle;
+		}
+
+		return Math.copySign(angle, y);
+	}
+
+	/**
+	 * Fast replacement for {@code Math.toDegrees(Math.atan2(y, x))}, accurate to
+	 * {@link #MAX_ATAN2_DEGREES_ERROR}.
+	 *
+	 * @param y
+	 *            y coordinate
+	 * @param x
+	 *            x coordinate
+	 * @return angle of the point (x, y) in degrees, between +/- 180
+	 */
+	public static double atan2Degrees(double y, double x) {
+		return Math.toDegrees(atan2(y, x));
+	}
+
+	/**
+	 * Fast replacement for {@link Math#sin}, accurate to
+	 * {@link #MAX_SIN_COS_ERROR}.
+	 *
+	 * @param radians
+	 *            angle in radians
+	 * @return sine of the angle
+	 */
+	public static double sin(double radians) {
+		return lookup(radians * CELLS_PER_RADIAN);
+	}
+
+	/**
+	 * Fast replacement for {@link Math#cos}, accurate to
+	 * {@link #MAX_SIN_COS_ERROR}.
+	 *
+	 * @param radians
+	 *            angle in radians
+	 * @return cosine of the angle
+	 */
+	public static double cos(double radians) {
+		return lookup(radians * CELLS_PER_RADIAN + TABLE_SIZE / 4);
+	}
+
+	/**
+	 * Fast replacement for {@code Math.sin(Math.toRadians(degrees))}, accurate
+	 * to {@link #MAX_SIN_COS_ERROR}.
+	 *
+	 * @param degrees
+	 *            angle in degrees
+	 * @return sine of the angle
+	 */
+	public static double sinDegrees(double degrees) {
+		return lookup(degrees * CELLS_PER_DEGREE);
+	}
+
+	/**
+	 * Fast replacement for {@code Math.cos(Math.toRadians(degrees))}, accurate
+	 * to {@link #MAX_SIN_COS_ERROR}.
+	 *
+	 * @param degrees
+	 *            angle in degrees
+	 * @return cosine of the angle
+	 */
+	public static double cosDegrees(double degrees) {
+		return lookup(degrees * CELLS_PER_DEGREE + TABLE_SIZE / 4);
+	}
+
+	/**
+	 * Arctangent of a value between 0 and 1.
+	 */
+	private static double atan01(double z) {
+		double z2 = z * z;
+		return z * (1 + z2 * (A2 + z2 * (A4 + z2 * (A6 + z2 * (A8 + z2 * (A10 + z2 * (A12 + z2 * (A14 + z2 * A16))))))));
+	}
+
+	/**
+	 * Linearly interpolates the sine table at a position given in cells. Any
+	 * position is wrapped into one turn.
+	 */
+	private static double lookup(double cells) {
+		double floor = Math.floor(cells);
+		int i = (int) ((long) floor & TABLE_MASK);
+		double t = cells - floor;
+		return SINE[i] + t * (SINE[i + 1] - SINE[i]);
+	}
+}
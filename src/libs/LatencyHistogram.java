@@ -0,0 +1,123 @@
+package src.libs;
+
+/**
+ * Fixed-size histogram of durations in nanoseconds with logarithmic buckets.
+ * <p>
+ * Each power of two is split into 8 buckets, so a reported percentile is
+ * within 12.5% of the true value. Recording is a few bit operations and an
+ * array increment, and allocates nothing.
+ * 
+ * @author Team 226
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	private static final int LINEAR = SUB_BUCKETS * 2;
+	private static final int BUCKETS = LINEAR + (63 - SUB_BITS - 1) * SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+	private long total;
+	private long max;
+
+	/**
+	 * Records one duration.
+	 * 
+	 * @param nanos
+	 *            duration in nanoseconds, negative values are counted as zero
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		counts[bucket(nanos)]++;
+		total++;
+		if (nanos > max) {
+			max = nanos;
+		}
+	}
+
+	/**
+	 * Gets a percentile of the recorded durations.
+	 * 
+	 * @param percentile
+	 *            percentile from 0 to 100
+	 * @return upper bound of the bucket holding the percentile in nanoseconds,
+	 *         or {@code 0} if nothing has been recorded
+	 */
+	public long getPercentile(double percentile) {
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(percentile / 100 * total);
+		if (rank < 1) {
+			rank = 1;
+		}
+
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(upperBound(i), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @return median duration in nanoseconds
+	 */
+	public long getP50() {
+		return getPercentile(50);
+	}
+
+	/**
+	 * @return 99th percentile duration in nanoseconds
+	 */
+	public long getP99() {
+		return getPercentile(99);
+	}
+
+	/**
+	 * @return longest duration recorded in nanoseconds
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * @return number of durations recorded
+	 */
+	public long getCount() {
+		return total;
+	}
+
+	/**
+	 * Clears all recorded durations.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = 0;
+		}
+		total = 0;
+		max = 0;
+	}
+
+	private static int bucket(long nanos) {
+		if (nanos < LINEAR) {
+			return (int) nanos;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return LINEAR + (exponent - SUB_BITS - 1) * SUB_BUCKETS + sub;
+	}
+
+	private static long upperBound(int bucket) {
+		if (bucket < LINEAR) {
+			return bucket;
+		}
+		int exponent = (bucket - LINEAR) / SUB_BUCKETS + SUB_BITS + 1;
+		int sub = (bucket - LINEAR) % SUB_BUCKETS;
+		return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+	}
+}
@@ -0,0 +1,22 @@
+package src.libs;
+
+/**
+ * Something that a drive algorithm can send percent output to, such as a motor
+ * controller or a group of them.
+ * <p>
+ * Lets {@link RobotDrive} run against real hardware through
+ * {@link TalonSRXSink}, or off the robot through {@link RecordingMotorSink}.
+ *
+ * @author Team 226
+ *
+ */
+public interface MotorSink {
+
+	/**
+	 * Sets the motor output.
+	 * 
+	 * @param output
+	 *            percent output from -1 to 1
+	 */
+	void set(double output);
+}
@@ -0,0 +1,28 @@
+package src.libs;
+
+/**
+ * {@link MotorSink} that sends the same output to several other sinks, for
+ * drive sides with more than one motor.
+ *
+ * @author Team 226
+ *
+ */
+public class MotorSinkGroup implements MotorSink {
+
+	private final MotorSink[] sinks;
+
+	/**
+	 * @param sinks
+	 *            sinks that will all receive the same output
+	 */
+	public MotorSinkGroup(MotorSink... sinks) {
+		this.sinks = sinks.clone();
+	}
+
+	@Override
+	public void set(double output) {
+		for (int i = 0; i < sinks.length; i++) {
+			sinks[i].set(output);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package src.libs;
+
+/**
+ * In-memory {@link MotorSink} that keeps the most recent outputs in a fixed
+ * size ring buffer. Used to run drive code in tests and benchmarks without
+ * motor controllers.
+ * <p>
+ * Recording allocates nothing.
+ *
+ * @author Team 226
+ *
+ */
+public class RecordingMotorSink implements MotorSink {
+
+	private final double[] outputs;
+	private long count;
+
+	/**
+	 * @param capacity
+	 *            number of most recent outputs to keep
+	 */
+	public RecordingMotorSink(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		}
+		outputs = new double[capacity];
+	}
+
+	@Override
+	public void set(double output) {
+		outputs[(int) (count % outputs.length)] = output;
+		count++;
+	}
+
+	/**
+	 * @return the last output set, or {@code 0} if nothing has been set
+	 */
+	public double getLast() {
+		return get(0);
+	}
+
+	/**
+	 * Gets a recorded output.
+	 * 
+	 * @param ago
+	 *            how many outputs back to look, {@code 0} being the most recent
+	 * @return the recorded output, or {@code 0} if it is no longer or not yet
+	 *         recorded
+	 */
+	public double get(int ago) {
+		if (ago < 0 || ago >= size()) {
+			return 0;
+		}
+		return outputs[(int) ((count - 1 - ago) % outputs.length)];
+	}
+
+	/**
+	 * @return number of outputs currently held in the buffer
+	 */
+	public int size() {
+		return (int) Math.min(count, outputs.length);
+	}
+
+	/**
+	 * @return total number of outputs set since creation or the last
+	 *         {@link #clear}
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Forgets all recorded outputs.
+	 */
+	public void clear() {
+		count = 0;
+	}
+}
@@ -1,8 +1,9 @@
 package src.libs;
 
-import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 
+import src.util.Clock;
+
 /**
  * A class for driving drive platforms such as the Kit of Parts drive base,
  * "tank drive", or West Coast Drive.
@@ -11,8 +12,10 @@ import com.ctre.phoenix.motorcontrol.can.TalonSRX;
  * {@link #culverDrive}
  * 
  * For four and six wheel drivetrains, pass in the two front (master)
- * {@link #TalonSRX}'s, and set the other Talons to follow the master on their
- * side.
+ * {@link TalonSRX}'s, and set the other Talons to follow the master on their
+ * side. Motors can also be given as {@link MotorSink}s, such as a
+ * {@link MotorSinkGroup} for each side, or a {@link RecordingMotorSink} to run
+ * without hardware.
  *
  * <p>
  * Inputs smaller than -1 will be set to -1, and values larger than 1 will be
@@ -24,9 +27,15 @@ import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 public class RobotDrive {
 
 	/**
-	 * Master left {@link #TalonSRX} and right {@link #TalonSRX} to be used
+	 * Longest time in seconds one rate limiting update may cover, five 20 ms
+	 * loop periods, so an update after a pause in driving cannot step the output
 	 */
-	private TalonSRX left, right;
+	private static final double MAX_LIMIT_PERIOD = 0.1;
+
+	/**
+	 * Left and right motor outputs to be used
+	 */
+	private MotorSink left, right;
 
 	/**
 	 * Sensitivity value to be used in {@link #drive}
@@ -34,15 +43,77 @@ public class RobotDrive {
 	private double sensitivity;
 	private double defaultSensitivity = 0.5;
 
+	/**
+	 * Precomputed curve to output ratio table used in {@link #drive},
+	 * {@code null} when disabled
+	 */
+	private CurveRatioTable curveTable;
+
+	/**
+	 * Time source for output deduplication and rate limiting
+	 */
+	private Clock clock = Clock.SYSTEM;
+
+	/**
+	 * Output deduplication settings used in {@link #tankDrive}
+	 */
+	private boolean deduplicate = false;
+	private double epsilon;
+	private long maxRefreshInterval;
+
+	/**
+	 * Last output written to each side and when it was written, in clock
+	 * nanoseconds
+	 */
+	private double lastLeft, lastRight;
+	private long lastLeftTime, lastRightTime;
+	private boolean outputsWritten = false;
+
+	/**
+	 * Rate limiting stage used in {@link #tankDrive}, {@code null} when disabled
+	 */
+	private SlewRateLimiter leftLimiter, rightLimiter;
+
+	/**
+	 * Clock time of the last rate limiting update, valid once
+	 * {@code limitTimed} is set
+	 */
+	private long lastLimitTime;
+	private boolean limitTimed = false;
+
+	/**
+	 * Last output commanded to each side by {@link #tankDrive}, whether or not it
+	 * was written
+	 */
+	private double leftOutput, rightOutput;
+
+	/**
+	 * Number of motor writes sent and suppressed by {@link #tankDrive}
+	 */
+	private long sentWrites, suppressedWrites;
+
 	/**
 	 * Constructor to construct a RobotDrive object
 	 * 
 	 * @param left
-	 *            master {@link #TalonSRX}
+	 *            master {@link TalonSRX}
 	 * @param right
-	 *            master {@link #TalonSRX}
+	 *            master {@link TalonSRX}
 	 */
 	public RobotDrive(TalonSRX left, TalonSRX right) {
+		this(new TalonSRXSink(left), new TalonSRXSink(right));
+	}
+
+	/**
+	 * Constructor to construct a RobotDrive object that writes to any motor
+	 * output
+	 * 
+	 * @param left
+	 *            left side {@link MotorSink}
+	 * @param right
+	 *            right side {@link MotorSink}
+	 */
+	public RobotDrive(MotorSink left, MotorSink right) {
 		this.left = left;
 		this.right = right;
 		sensitivity = defaultSensitivity;
@@ -64,8 +135,211 @@ public class RobotDrive {
 			leftSpeed = Math.copySign(leftSpeed * leftSpeed, leftSpeed);
 			rightSpeed = Math.copySign(rightSpeed * rightSpeed, rightSpeed);
 		}
-		left.set(ControlMode.PercentOutput, limit(leftSpeed));
-		right.set(ControlMode.PercentOutput, limit(rightSpeed));
+		leftSpeed = limit(leftSpeed);
+		rightSpeed = limit(rightSpeed);
+
+		if (leftLimiter != null) {
+			long start = DriveProfiler.start();
+
+			// The first update after enabling has nothing to measure from, so it
+			// moves nothing
+			long now = clock.nanoTime();
+			double dt = limitTimed ? Math.min((now - lastLimitTime) * 1e-9, MAX_LIMIT_PERIOD) : 0;
+			lastLimitTime = now;
+			limitTimed = true;
+
+			leftSpeed = leftLimiter.calculate(leftSpeed, dt);
+			rightSpeed = rightLimiter.calculate(rightSpeed, dt);
+
+			DriveProfiler.stop(DriveProfiler.Stage.TANK_RATE_LIMIT, start);
+		}
+
+		leftOutput = leftSpeed;
+		rightOutput = rightSpeed;
+
+		long start = DriveProfiler.start();
+
+		if (!deduplicate) {
+			left.set(leftSpeed);
+			right.set(rightSpeed);
+			sentWrites += 2;
+			DriveProfiler.stop(DriveProfiler.Stage.TANK_WRITE, start);
+			return;
+		}
+
+		long now = clock.nanoTime();
+
+		if (!outputsWritten || changed(leftSpeed, lastLeft, now, lastLeftTime)) {
+			left.set(leftSpeed);
+			lastLeft = leftSpeed;
+			lastLeftTime = now;
+			sentWrites++;
+		} else {
+			suppressedWrites++;
+		}
+
+		if (!outputsWritten || changed(rightSpeed, lastRight, now, lastRightTime)) {
+			right.set(rightSpeed);
+			lastRight = rightSpeed;
+			lastRightTime = now;
+			sentWrites++;
+		} else {
+			suppressedWrites++;
+		}
+
+		outputsWritten = true;
+
+		DriveProfiler.stop(DriveProfiler.Stage.TANK_WRITE, start);
+	}
+
+	/**
+	 * Enables output deduplication in {@link #tankDrive}. A side's motor is only
+	 * written when its output changes by more than <b>epsilon</b>, or when
+	 * <b>maxRefreshInterval</b> has passed since it was last written so the motor
+	 * controller keeps receiving frames.
+	 * <p>
+	 * Time is read from the clock set with {@link #setClock}.
+	 * 
+	 * @param epsilon
+	 *            smallest change in output that will be written
+	 * @param maxRefreshInterval
+	 *            longest time in seconds to go without writing a side's output
+	 */
+	public void enableOutputDeduplication(double epsilon, double maxRefreshInterval) {
+		this.epsilon = epsilon;
+		this.maxRefreshInterval = (long) (maxRefreshInterval * 1e9);
+		deduplicate = true;
+		outputsWritten = false;
+	}
+
+	/**
+	 * Disables output deduplication, so every call to {@link #tankDrive} writes
+	 * both sides.
+	 */
+	public void disableOutputDeduplication() {
+		deduplicate = false;
+	}
+
+	/**
+	 * Enables rate limiting in {@link #tankDrive}, so each side's output ramps
+	 * towards its command instead of stepping. The time between updates is taken
+	 * from the given clock, which should be the one driving the robot loop, and
+	 * which also becomes the clock for output deduplication. Both sides start
+	 * from their last commanded output. The first update after enabling only
+	 * starts the timing and leaves the outputs where they are, and no update
+	 * covers more than five loop periods, so neither the time spent before the
+	 * first call nor a pause such as a disabled period lets an output step.
+	 * 
+	 * @param accelerationRate
+	 *            largest change in output per second while speeding up
+	 * @param decelerationRate
+	 *            largest change in output per second while slowing down
+	 * @param clock
+	 *            time source for the time between updates
+	 */
+	public void enableRateLimiting(double accelerationRate, double decelerationRate, Clock clock) {
+		setClock(clock);
+		enableRateLimiting(accelerationRate, decelerationRate);
+	}
+
+	/**
+	 * Enables rate limiting in {@link #tankDrive}, timed by the clock set with
+	 * {@link #setClock}.
+	 * 
+	 * @param accelerationRate
+	 *            largest change in output per second while speeding up
+	 * @param decelerationRate
+	 *            largest change in output per second while slowing down
+	 */
+	public void enableRateLimiting(double accelerationRate, double decelerationRate) {
+		leftLimiter = new SlewRateLimiter(accelerationRate, decelerationRate);
+		rightLimiter = new SlewRateLimiter(accelerationRate, decelerationRate);
+		leftLimiter.reset(leftOutput);
+		rightLimiter.reset(rightOutput);
+		limitTimed = false;
+	}
+
+	/**
+	 * Disables rate limiting, so {@link #tankDrive} writes commands as given.
+	 */
+	public void disableRateLimiting() {
+		leftLimiter = null;
+		rightLimiter = null;
+	}
+
+	/**
+	 * Sets the time source used by output deduplication and rate limiting,
+	 * normally the clock driving the robot loop. Defaults to
+	 * {@link Clock#SYSTEM}, so {@link #tankDrive} never needs the HAL.
+	 * 
+	 * @param clock
+	 *            time source
+	 */
+	public void setClock(Clock clock) {
+		this.clock = clock;
+		outputsWritten = false;
+		limitTimed = false;
+	}
+
+	/**
+	 * @return the time source used by output deduplication and rate limiting
+	 */
+	public Clock getClock() {
+		return clock;
+	}
+
+	/**
+	 * @return last output commanded to the left side by {@link #tankDrive}
+	 */
+	public double getLeftOutput() {
+		return leftOutput;
+	}
+
+	/**
+	 * @return last output commanded to the right side by {@link #tankDrive}
+	 */
+	public double getRightOutput() {
+		return rightOutput;
+	}
+
+	/**
+	 * @return number of motor writes sent by {@link #tankDrive}
+	 */
+	public long getSentWrites() {
+		return sentWrites;
+	}
+
+	/**
+	 * @return number of motor writes suppressed by output deduplication
+	 */
+	public long getSuppressedWrites() {
+		return suppressedWrites;
+	}
+
+	/**
+	 * Resets the sent and suppressed write counters to zero.
+	 */
+	public void resetWriteCounters() {
+		sentWrites = 0;
+		suppressedWrites = 0;
+	}
+
+	/**
+	 * Checks whether an output needs to be written.
+	 * 
+	 * @param value
+	 *            new output
+	 * @param last
+	 *            last output written
+	 * @param now
+	 *            current time in clock nanoseconds
+	 * @param lastTime
+	 *            time the last output was written in clock nanoseconds
+	 * @return {@code true} if the output changed by more than the epsilon or the
+	 *         refresh interval has passed, {@code false} otherwise
+	 */
+	private boolean changed(double value, double last, long now, long lastTime) {
+		return Math.abs(value - last) > epsilon || now - lastTime >= maxRefreshInterval;
 	}
 
 	/**
@@ -169,20 +443,21 @@ public class RobotDrive {
 		final double leftOutput;
 		final double rightOutput;
 
-		if (curve < 0) {
-			double value = Math.log(-curve);
-			double ratio = (value - sensitivity) / (value + sensitivity);
-			if (ratio == 0) {
-				ratio = .0000000001;
+		if (curveTable != null && curveTable.covers(curve)) {
+			double inverseRatio = curveTable.getInverseRatio(curve);
+			if (curve < 0) {
+				leftOutput = outputMagnitude * inverseRatio;
+				rightOutput = outputMagnitude;
+			} else {
+				leftOutput = outputMagnitude;
+				rightOutput = outputMagnitude * inverseRatio;
 			}
+		} else if (curve < 0) {
+			double ratio = curveRatio(-curve, sensitivity);
 			leftOutput = outputMagnitude / ratio;
 			rightOutput = outputMagnitude;
 		} else if (curve > 0) {
-			double value = Math.log(curve);
-			double ratio = (value - sensitivity) / (value + sensitivity);
-			if (ratio == 0) {
-				ratio = .0000000001;
-			}
+			double ratio = curveRatio(curve, sensitivity);
 			leftOutput = outputMagnitude;
 			rightOutput = outputMagnitude / ratio;
 		} else {
@@ -201,6 +476,57 @@ public class RobotDrive {
 	 */
 	public void setSensitivity(double value) {
 		sensitivity = value;
+		if (curveTable != null) {
+			curveTable = new CurveRatioTable(sensitivity, curveTable.getSize());
+		}
+	}
+
+	/**
+	 * Makes {@link #drive} look up the ratio between its outputs in a table
+	 * instead of calculating it. The table is rebuilt whenever
+	 * {@link #setSensitivity} is called. Curves the table does not cover are
+	 * still calculated exactly.
+	 * 
+	 * @param size
+	 *            number of cells in the table over a curve of 0 to 1
+	 */
+	public void enableCurveTable(int size) {
+		curveTable = new CurveRatioTable(sensitivity, size);
+	}
+
+	/**
+	 * Makes {@link #drive} calculate the ratio between its outputs exactly.
+	 */
+	public void disableCurveTable() {
+		curveTable = null;
+	}
+
+	/**
+	 * @return the table used by {@link #drive}, or {@code null} if it is
+	 *         disabled
+	 */
+	public CurveRatioTable getCurveTable() {
+		return curveTable;
+	}
+
+	/**
+	 * Calculates the ratio of the inside output to the outside output used by
+	 * {@link #drive}. This is the exact path, also used to build
+	 * {@link CurveRatioTable}.
+	 * 
+	 * @param curve
+	 *            magnitude of the curve, greater than 0
+	 * @param sensitivity
+	 *            turning sensitivity
+	 * @return the ratio the outside output is divided by
+	 */
+	static double curveRatio(double curve, double sensitivity) {
+		double value = Math.log(curve);
+		double ratio = (value - sensitivity) / (value + sensitivity);
+		if (ratio == 0) {
+			ratio = .0000000001;
+		}
+		return ratio;
 	}
 
 	/**
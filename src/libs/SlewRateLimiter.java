@@ -0,0 +1,123 @@
+package src.libs;
+
+/**
+ * Limits how quickly an output may change, so step changes in a drive command
+ * become ramps instead of current spikes.
+ * <p>
+ * Speeding up (moving away from zero) and slowing down (moving towards zero)
+ * have separate rates. A reversal slows down to zero at the deceleration rate
+ * and then speeds up at the acceleration rate, within the same update if the
+ * time step allows. Updating allocates nothing.
+ *
+ * @author Team 226
+ *
+ */
+public class SlewRateLimiter {
+
+	private final double accelerationRate;
+	private final double decelerationRate;
+
+	private double value;
+
+	/**
+	 * Construct a new SlewRateLimiter starting at 0.
+	 *
+	 * @param accelerationRate
+	 *            largest change per second while moving away from zero, or
+	 *            {@link Double#POSITIVE_INFINITY} for no limit
+	 * @param decelerationRate
+	 *            largest change per second while moving towards zero, or
+	 *            {@link Double#POSITIVE_INFINITY} for no limit
+	 */
+	public SlewRateLimiter(double accelerationRate, double decelerationRate) {
+		if (!(accelerationRate > 0) || !(decelerationRate > 0)) {
+			throw new IllegalArgumentException("Rates must be greater than 0");
+		}
+		this.accelerationRate = accelerationRate;
+		this.decelerationRate = decelerationRate;
+	}
+
+	/**
+	 * Moves the output towards the target as far as the rates allow.
+	 *
+	 * @param target
+	 *            desired output
+	 * @param dt
+	 *            time since the last update in seconds
+	 * @return the limited output
+	 */
+	public double calculate(double target, double dt) {
+		value = step(value, target, accelerationRate, decelerationRate, dt);
+		return value;
+	}
+
+	/**
+	 * Sets the output without limiting, for example when the robot is enabled.
+	 *
+	 * @param value
+	 *            new output
+	 */
+	public void reset(double value) {
+		this.value = value;
+	}
+
+	/**
+	 * @return the last limited output
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * @return largest change per second while moving away from zero
+	 */
+	public double getAccelerationRate() {
+		return accelerationRate;
+	}
+
+	/**
+	 * @return largest change per second while moving towards zero
+	 */
+	public double getDecelerationRate() {
+		return decelerationRate;
+	}
+
+	/**
+	 * Moves a value towards a target as far as the given rates allow. Shared
+	 * with {@link SwerveModuleRateLimiter}.
+	 *
+	 * @param value
+	 *            current output
+	 * @param target
+	 *            desired output
+	 * @param accelerationRate
+	 *            largest change per second while moving away from zero
+	 * @param decelerationRate
+	 *            largest change per second while moving towards zero
+	 * @param dt
+	 *            time step in seconds
+	 * @return the new output
+	 */
+	static double step(double value, double target, double accelerationRate, double decelerationRate, double dt) {
+		if (dt <= 0) {
+			return value;
+		}
+
+		if ((value > 0 && target < value) || (value < 0 && target > value)) {
+			// Slow down, stopping at zero if the target is on the other side
+			double stop = value > 0 ? Math.max(target, 0) : Math.min(target, 0);
+			double distance = Math.abs(stop - value);
+			double maxStep = decelerationRate * dt;
+			if (distance > maxStep) {
+				return value - Math.copySign(maxStep, value);
+			}
+
+			// Use the rest of the time step to speed up the other way
+			dt -= distance / decelerationRate;
+			value = stop;
+		}
+
+		double maxStep = accelerationRate * dt;
+		return value + Math.max(-maxStep, Math.min(maxStep, target - value));
+	}
+}
@@ -23,6 +23,8 @@ public class SwerveDrive {
 	private double length;
 	private double width;
 	private double phi;
+	private double sinPhi;
+	private double cosPhi;
 
 	private double[] speeds;
 	private double[] angles;
@@ -31,6 +33,23 @@ public class SwerveDrive {
 
 	private Pair[] wheelCoords;
 
+	/**
+	 * Compiled module geometry, one entry per module: the strafe and forward
+	 * velocity each module gets from a unit of clockwise rotation. These are the
+	 * module's lever arm {@code (y, -x)} scaled so that the module farthest from
+	 * the center of rotation moves at the rotation rate, as in
+	 * {@link #calc4WheelVectors}.
+	 */
+	private double[] rotationStrafe;
+	private double[] rotationForward;
+
+	/**
+	 * Distance from the center of rotation to the farthest module
+	 */
+	private double rotationRadius;
+
+	private boolean fastMath = false;
+
 	/**
 	 * Construct a new SwerveDrive given the drive base's length and width. Assumes
 	 * 4 swerve modules.
@@ -41,9 +60,8 @@ public class SwerveDrive {
 	 *            Width
 	 */
 	public SwerveDrive(double l, double w) {
-		this.length = l;
-		this.width = w;
-		this.phi = atan2(length, width);
+		this(new Pair[] { new Pair(-w / 2, l / 2), new Pair(w / 2, l / 2), new Pair(-w / 2, -l / 2),
+				new Pair(w / 2, -l / 2) });
 	}
 
 	/**
@@ -61,6 +79,75 @@ public class SwerveDrive {
 		for (int i = 0; i < outputVectors.length; i++) {
 			outputVectors[i] = new Vector(0, 0);
 		}
+		compileGeometry();
+	}
+
+	/**
+	 * Precomputes everything that depends only on the module layout, so that the
+	 * per-cycle calculations only need the field-centric rotation. Also derives
+	 * the chassis length and width from the outermost modules.
+	 */
+	private void compileGeometry() {
+		int n = wheelCoords.length;
+		rotationStrafe = new double[n];
+		rotationForward = new double[n];
+
+		rotationRadius = 0;
+		for (int i = 0; i < n; i++) {
+			rotationRadius = Math.max(rotationRadius, mag(wheelCoords[i].x, wheelCoords[i].y));
+		}
+		// A lone module at the center of rotation cannot turn the chassis
+		double scale = rotationRadius > 0 ? 1 / rotationRadius : 0;
+
+		double minX = 0, maxX = 0, minY = 0, maxY = 0;
+		for (int i = 0; i < n; i++) {
+			double x = wheelCoords[i].x;
+			double y = wheelCoords[i].y;
+
+			// Clockwise rotation moves a module at (x, y) along (y, -x)
+			rotationStrafe[i] = y * scale;
+			rotationForward[i] = -x * scale;
+
+			if (i == 0 || x < minX) {
+				minX = x;
+			}
+			if (i == 0 || x > maxX) {
+				maxX = x;
+			}
+			if (i == 0 || y < minY) {
+				minY = y;
+			}
+			if (i == 0 || y > maxY) {
+				maxY = y;
+			}
+		}
+
+		length = maxY - minY;
+		width = maxX - minX;
+		phi = atan2(length, width);
+		sinPhi = sin(phi);
+		cosPhi = cos(phi);
+	}
+
+	/**
+	 * Selects the trig used by the per-cycle calculations. With the fast
+	 * kernels in {@link FastTrig}, wheel speeds stay within 3e-7 of the exact
+	 * results and wheel angles within 1e-5 degrees divided by the wheel speed,
+	 * since the heading of a nearly stopped wheel is poorly defined.
+	 * 
+	 * @param enabled
+	 *            {@code true} to use {@link FastTrig}, {@code false} to use
+	 *            {@link Math}
+	 */
+	public void setFastMath(boolean enabled) {
+		fastMath = enabled;
+	}
+
+	/**
+	 * @return {@code true} if the per-cycle calculations use {@link FastTrig}
+	 */
+	public boolean isFastMath() {
+		return fastMath;
 	}
 
 	/**
@@ -78,29 +165,10 @@ public class SwerveDrive {
 	 *         module
 	 */
 	public double[][] calc4WheelVectors(double str, double fwd, double rcw, double gyro) {
-		double mag = mag(str, fwd);
-
-		double fcTheta = atan2(fwd, str) - toRadians(gyro);
-
-		double fcFwd = mag * sin(fcTheta);
-		double fcStr = mag * cos(fcTheta);
+		double[] speeds = new double[4];
+		double[] angles = new double[4];
 
-		double A = fcStr - rcw * sin(phi);
-		double B = fcStr + rcw * sin(phi);
-		double C = fcFwd - rcw * cos(phi);
-		double D = fcFwd + rcw * cos(phi);
-
-		double[] fl = { B, D };
-		double[] fr = { B, C };
-		double[] rl = { A, D };
-		double[] rr = { A, C };
-
-		double[] speeds = { mag(fl[0], fl[1]), mag(fr[0], fr[1]), mag(rl[0], rl[1]), mag(rr[0], rr[1]) };
-
-		normalize(speeds);
-
-		double[] angles = { degreeAngle(fl[0], fl[1]), degreeAngle(fr[0], fr[1]), degreeAngle(rl[0], rl[1]),
-				degreeAngle(rr[0], rr[1]) };
+		calc4WheelVectors(str, fwd, rcw, gyro, speeds, angles);
 
 		double[][] v = new double[4][2];
 		for (int i = 0; i < 4; i++) {
@@ -111,9 +179,68 @@ public class SwerveDrive {
 		return v;
 	}
 
+	/**
+	 * Calculate the vector for each module of a 4-module swerve chassis, writing
+	 * the results into the given arrays instead of allocating new ones. Modules
+	 * are ordered front left, front right, rear left, rear right.
+	 * <p>
+	 * Allocates nothing, so it is safe to call every loop.
+	 * 
+	 * @param str
+	 *            Strafe
+	 * @param fwd
+	 *            Forward throttle
+	 * @param rcw
+	 *            Clockwise rotation
+	 * @param gyro
+	 *            Gyro angle, for field-centric driving
+	 * @param speedsOut
+	 *            array of at least 4 elements to receive each module's wheel
+	 *            speed
+	 * @param anglesOut
+	 *            array of at least 4 elements to receive each module's heading
+	 *            in degrees
+	 */
+	public void calc4WheelVectors(double str, double fwd, double rcw, double gyro, double[] speedsOut,
+			double[] anglesOut) {
+		long start = DriveProfiler.start();
+
+		// Rotate the joystick vector by the gyro angle for field-centric driving
+		double sinGyro = sinDegrees(gyro);
+		double cosGyro = cosDegrees(gyro);
+
+		double fcFwd = fwd * cosGyro - str * sinGyro;
+		double fcStr = str * cosGyro + fwd * sinGyro;
+
+		double A = fcStr - rcw * sinPhi;
+		double B = fcStr + rcw * sinPhi;
+		double C = fcFwd - rcw * cosPhi;
+		double D = fcFwd + rcw * cosPhi;
+
+		// fl = { B, D }, fr = { B, C }, rl = { A, D }, rr = { A, C }
+		speedsOut[0] = mag(B, D);
+		speedsOut[1] = mag(B, C);
+		speedsOut[2] = mag(A, D);
+		speedsOut[3] = mag(A, C);
+
+		normalize(speedsOut, 4);
+
+		anglesOut[0] = degreeAngle(B, D);
+		anglesOut[1] = degreeAngle(B, C);
+		anglesOut[2] = degreeAngle(A, D);
+		anglesOut[3] = degreeAngle(A, C);
+
+		DriveProfiler.stop(DriveProfiler.Stage.SWERVE_4_WHEEL, start);
+	}
+
 	/**
 	 * Calculate the vector for each module of a swerve chassis with n number of
 	 * modules
+	 * <p>
+	 * Gives the same wheel speeds as {@link #calc4WheelVectors} for the same
+	 * layout, but each module's heading is measured counter-clockwise from the
+	 * strafe axis instead of clockwise from forward, so it equals 90 minus the
+	 * {@link #calc4WheelVectors} angle.
 	 * 
 	 * @param strafe
 	 *            Left/right movement
@@ -126,17 +253,18 @@ public class SwerveDrive {
 	 * @return a Vector array containing the heading and wheel speed for each module
 	 */
 	public Vector[] calcWheelVectorsN(double strafe, double throttle, double rotation, double gyroAngle) {
+		long start = DriveProfiler.start();
 
-		double mag = mag(throttle, strafe);
-		double fcTheta = atan2(throttle, strafe) - toRadians(gyroAngle);
+		// Rotate the joystick vector by the gyro angle for field-centric driving
+		double sinGyro = sinDegrees(gyroAngle);
+		double cosGyro = cosDegrees(gyroAngle);
 
-		for (int i = 0; i < wheelCoords.length; i++) {
-			double fcFwd = mag * sin(fcTheta);
-			double fcStr = mag * cos(fcTheta);
+		double fcFwd = throttle * cosGyro - strafe * sinGyro;
+		double fcStr = strafe * cosGyro + throttle * sinGyro;
 
-			double phi = atan2(wheelCoords[i].y, wheelCoords[i].x);
-			double Wx = fcFwd + rotation * sin(phi);
-			double Wy = fcStr + rotation * cos(phi);
+		for (int i = 0; i < rotationStrafe.length; i++) {
+			double Wx = fcFwd + rotation * rotationForward[i];
+			double Wy = fcStr + rotation * rotationStrafe[i];
 
 			speeds[i] = mag(Wx, Wy);
 			angles[i] = degreeAngle(Wx, Wy);
@@ -149,6 +277,8 @@ public class SwerveDrive {
 			outputVectors[i].angle = angles[i];
 		}
 
+		DriveProfiler.stop(DriveProfiler.Stage.SWERVE_N_WHEEL, start);
+
 		return outputVectors;
 	}
 
@@ -156,6 +286,43 @@ public class SwerveDrive {
 		return currentAngle + toBase180(targetAngle - toBase180(currentAngle));
 	}
 
+	/**
+	 * Optimizes the state of every module at once. For each module, either
+	 * rotates to the target angle or rotates to the opposite angle and reverses
+	 * the wheel speed, whichever needs less steering travel. The resulting
+	 * setpoints are continuous, so they can be sent straight to a steering
+	 * controller that tracks an unwrapped angle.
+	 * <p>
+	 * Allocates nothing, so it is safe to call every loop.
+	 * 
+	 * @param currentAngles
+	 *            current (unwrapped) angle of each module's steering in degrees
+	 * @param speeds
+	 *            desired wheel speed of each module, reversed in place where the
+	 *            module is flipped
+	 * @param targetAngles
+	 *            desired heading of each module in degrees
+	 * @param setpoints
+	 *            array to receive the continuous steering setpoint of each module
+	 *            in degrees, may be the same array as <b>targetAngles</b>
+	 */
+	public void optimizeModuleStates(double[] currentAngles, double[] speeds, double[] targetAngles,
+			double[] setpoints) {
+		for (int i = 0; i < speeds.length; i++) {
+			double delta = toBase180(targetAngles[i] - currentAngles[i]);
+
+			if (delta > 90) {
+				delta -= 180;
+				speeds[i] = -speeds[i];
+			} else if (delta < -90) {
+				delta += 180;
+				speeds[i] = -speeds[i];
+			}
+
+			setpoints[i] = currentAngles[i] + delta;
+		}
+	}
+
 	/**
 	 * Normalize the given angle to between +/- 180
 	 * 
@@ -164,10 +331,11 @@ public class SwerveDrive {
 	 * @return normalized angle
 	 */
 	private static double toBase180(double angle) {
-		while (angle > 180) {
+		angle %= 360;
+
+		if (angle > 180) {
 			angle -= 360;
-		}
-		while (angle < -180) {
+		} else if (angle < -180) {
 			angle += 360;
 		}
 
@@ -182,13 +350,26 @@ public class SwerveDrive {
 	 *            the list to normalize
 	 */
 	private static void normalize(double[] arg) {
+		normalize(arg, arg.length);
+	}
+
+	/**
+	 * Divides the first {@code n} elements in the given array by the largest of
+	 * those values.
+	 * 
+	 * @param arg
+	 *            the list to normalize
+	 * @param n
+	 *            number of elements to normalize
+	 */
+	private static void normalize(double[] arg, int n) {
 		double max = 1.0;
-		for (double s : arg) {
-			if (abs(s) > max) {
-				max = abs(s);
+		for (int i = 0; i < n; i++) {
+			if (abs(arg[i]) > max) {
+				max = abs(arg[i]);
 			}
 		}
-		for (int i = 0; i < arg.length; i++) {
+		for (int i = 0; i < n; i++) {
 			arg[i] /= max;
 		}
 	}
@@ -215,8 +396,22 @@ public class SwerveDrive {
 	 *            vector 2
 	 * @return degree angle
 	 */
-	private static double degreeAngle(double y, double x) {
-		return toDegrees(atan2(y, x));
+	private double degreeAngle(double y, double x) {
+		return fastMath ? FastTrig.atan2Degrees(y, x) : toDegrees(atan2(y, x));
+	}
+
+	/**
+	 * Sine of an angle in degrees, using the selected trig.
+	 */
+	private double sinDegrees(double degrees) {
+		return fastMath ? FastTrig.sinDegrees(degrees) : sin(toRadians(degrees));
+	}
+
+	/**
+	 * Cosine of an angle in degrees, using the selected trig.
+	 */
+	private double cosDegrees(double degrees) {
+		return fastMath ? FastTrig.cosDegrees(degrees) : cos(toRadians(degrees));
 	}
 
 }
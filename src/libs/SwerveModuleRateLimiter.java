@@ -0,0 +1,83 @@
+package src.libs;
+
+/**
+ * Limits how quickly the wheel speed of each swerve module may change, using
+ * the same rules as {@link SlewRateLimiter}. Meant to run on the speeds from
+ * {@link SwerveDrive} after {@link SwerveDrive#optimizeModuleStates}, so a
+ * flipped module ramps through zero instead of reversing instantly. Module
+ * angles are left alone.
+ *
+ * @author Team 226
+ *
+ */
+public class SwerveModuleRateLimiter {
+
+	private final double accelerationRate;
+	private final double decelerationRate;
+
+	/**
+	 * Last limited speed of each module
+	 */
+	private final double[] speeds;
+
+	/**
+	 * Construct a new SwerveModuleRateLimiter with every module starting at 0.
+	 *
+	 * @param modules
+	 *            number of swerve modules
+	 * @param accelerationRate
+	 *            largest change in speed per second while moving away from zero
+	 * @param decelerationRate
+	 *            largest change in speed per second while moving towards zero
+	 */
+	public SwerveModuleRateLimiter(int modules, double accelerationRate, double decelerationRate) {
+		if (!(accelerationRate > 0) || !(decelerationRate > 0)) {
+			throw new IllegalArgumentException("Rates must be greater than 0");
+		}
+		this.accelerationRate = accelerationRate;
+		this.decelerationRate = decelerationRate;
+		this.speeds = new double[modules];
+	}
+
+	/**
+	 * Limits each module's speed in place.
+	 * <p>
+	 * Allocates nothing, so it is safe to call every loop.
+	 *
+	 * @param targetSpeeds
+	 *            desired speed of each module, replaced with the limited speed
+	 * @param dt
+	 *            time since the last update in seconds
+	 */
+	public void calculate(double[] targetSpeeds, double dt) {
+		long start = DriveProfiler.start();
+
+		for (int i = 0; i < speeds.length; i++) {
+			speeds[i] = SlewRateLimiter.step(speeds[i], targetSpeeds[i], accelerationRate, decelerationRate, dt);
+			targetSpeeds[i] = speeds[i];
+		}
+
+		DriveProfiler.stop(DriveProfiler.Stage.SWERVE_RATE_LIMIT, start);
+	}
+
+	/**
+	 * Sets every module's speed without limiting.
+	 *
+	 * @param value
+	 *            new speed of every module
+	 */
+	public void reset(double value) {
+		for (int i = 0; i < speeds.length; i++) {
+			speeds[i] = value;
+		}
+	}
+
+	/**
+	 * @param module
+	 *            index of the module
+	 * @return last limited speed of the module
+	 */
+	public double getSpeed(int module) {
+		return speeds[module];
+	}
+}
@@ -0,0 +1,274 @@
+package src.libs;
+
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+import static java.lang.Math.toDegrees;
+import static java.lang.Math.toRadians;
+
+/**
+ * Swerve drive forward kinematics & odometry for a chassis with n number of
+ * modules.
+ * <p>
+ * Turns measured module speeds and angles into a chassis velocity using the
+ * least-squares pseudo-inverse of the module matrix, then integrates that
+ * velocity into a field-relative pose. The pseudo-inverse is computed once at
+ * construction, so {@link #update} does no allocation and no matrix math.
+ * <p>
+ * Module coordinates are given as {@link Pair}s relative to the center of
+ * rotation, as for {@link SwerveDrive}. Module angles are in degrees, measured
+ * counter-clockwise from the strafe axis, as returned by
+ * {@link SwerveDrive#calcWheelVectorsN}; angles from
+ * {@link SwerveDrive#calc4WheelVectors} must be subtracted from 90 first.
+ * <p>
+ * Angular velocity and heading are counter-clockwise positive, in radians per
+ * second and degrees. {@link SwerveDrive} takes its rotation command clockwise
+ * positive and scaled by the distance to the farthest module, so
+ * {@link #getRotationCommand} converts the angular velocity back into that
+ * form. Feeding the output of {@link SwerveDrive#calcWheelVectorsN} (without
+ * field-centric rotation or normalization) into {@link #calcChassisVelocity}
+ * returns the original strafe, forward and rotation command.
+ *
+ * @author Team 226
+ *
+ */
+public class SwerveOdometry {
+
+	/**
+	 * Pseudo-inverse of the module matrix, split by chassis output (strafe,
+	 * forward, rotation) and module velocity component (strafe, forward)
+	 */
+	private final double[] strFromStr;
+	private final double[] strFromFwd;
+	private final double[] fwdFromStr;
+	private final double[] fwdFromFwd;
+	private final double[] rotFromStr;
+	private final double[] rotFromFwd;
+
+	/**
+	 * Distance from the center of rotation to the farthest module
+	 */
+	private final double rotationRadius;
+
+	private double strafeVelocity;
+	private double forwardVelocity;
+	private double angularVelocity;
+
+	private double x;
+	private double y;
+	private double heading;
+
+	/**
+	 * Construct a new SwerveOdometry object given the coordinates of the each
+	 * swerve module in relation to the robot's center of rotation
+	 *
+	 * @param pairs
+	 *            x, y coordinates of each swerve module, in the same order the
+	 *            module speeds and angles will be given in
+	 */
+	public SwerveOdometry(Pair[] pairs) {
+		int n = pairs.length;
+
+		// Each module contributes the rows [1, 0, -y] and [0, 1, x] to the module
+		// matrix A. Build the symmetric 3x3 matrix A^T * A.
+		double sumX = 0, sumY = 0, sumR2 = 0, maxR2 = 0;
+		for (Pair p : pairs) {
+			double r2 = p.x * p.x + p.y * p.y;
+			sumX += p.x;
+			sumY += p.y;
+			sumR2 += r2;
+			maxR2 = Math.max(maxR2, r2);
+		}
+		rotationRadius = Math.sqrt(maxR2);
+
+		double a00 = n, a01 = 0, a02 = -sumY;
+		double a11 = n, a12 = sumX;
+		double a22 = sumR2;
+
+		double c00 = a11 * a22 - a12 * a12;
+		double c01 = a02 * a12 - a01 * a22;
+		double c02 = a01 * a12 - a02 * a11;
+		double c11 = a00 * a22 - a02 * a02;
+		double c12 = a01 * a02 - a00 * a12;
+		double c22 = a00 * a11 - a01 * a01;
+
+		double det = a00 * c00 + a01 * c01 + a02 * c02;
+		if (n < 2 || Math.abs(det) < 1e-12) {
+			throw new IllegalArgumentException("Module layout does not determine chassis motion");
+		}
+
+		double i00 = c00 / det, i01 = c01 / det, i02 = c02 / det;
+		double i11 = c11 / det, i12 = c12 / det;
+		double i22 = c22 / det;
+
+		// pinv = (A^T * A)^-1 * A^T
+		strFromStr = new double[n];
+		strFromFwd = new double[n];
+		fwdFromStr = new double[n];
+		fwdFromFwd = new double[n];
+		rotFromStr = new double[n];
+		rotFromFwd = new double[n];
+		for (int i = 0; i < n; i++) {
+			double px = pairs[i].x;
+			double py = pairs[i].y;
+
+			strFromStr[i] = i00 - i02 * py;
+			strFromFwd[i] = i01 + i02 * px;
+			fwdFromStr[i] = i01 - i12 * py;
+			fwdFromFwd[i] = i11 + i12 * px;
+			rotFromStr[i] = i02 - i22 * py;
+			rotFromFwd[i] = i12 + i22 * px;
+		}
+	}
+
+	/**
+	 * Updates the chassis velocity and integrates the pose using the heading
+	 * tracked from the module measurements.
+	 *
+	 * @param speeds
+	 *            measured speed of each module
+	 * @param angles
+	 *            measured angle of each module in degrees
+	 * @param dt
+	 *            time since the last update in seconds
+	 */
+	public void update(double[] speeds, double[] angles, double dt) {
+		calcChassisVelocity(speeds, angles);
+
+		double midHeading = heading + angularVelocity * dt * 0.5;
+		integrate(midHeading, dt);
+		heading += angularVelocity * dt;
+	}
+
+	/**
+	 * Updates the chassis velocity and integrates the pose using a gyro reading
+	 * for the heading.
+	 *
+	 * @param speeds
+	 *            measured speed of each module
+	 * @param angles
+	 *            measured angle of each module in degrees
+	 * @param gyroAngle
+	 *            angle reading of a gyroscope sensor in degrees
+	 * @param dt
+	 *            time since the last update in seconds
+	 */
+	public void update(double[] speeds, double[] angles, double gyroAngle, double dt) {
+		calcChassisVelocity(speeds, angles);
+
+		double gyroHeading = toRadians(gyroAngle);
+		integrate((heading + gyroHeading) * 0.5, dt);
+		heading = gyroHeading;
+	}
+
+	/**
+	 * Calculates the chassis velocity from measured module states without
+	 * touching the pose.
+	 *
+	 * @param speeds
+	 *            measured speed of each module
+	 * @param angles
+	 *            measured angle of each module in degrees
+	 */
+	public void calcChassisVelocity(double[] speeds, double[] angles) {
+		double str = 0, fwd = 0, rot = 0;
+		for (int i = 0; i < strFromStr.length; i++) {
+			double a = toRadians(angles[i]);
+			double vStr = speeds[i] * cos(a);
+			double vFwd = speeds[i] * sin(a);
+
+			str += strFromStr[i] * vStr + strFromFwd[i] * vFwd;
+			fwd += fwdFromStr[i] * vStr + fwdFromFwd[i] * vFwd;
+			rot += rotFromStr[i] * vStr + rotFromFwd[i] * vFwd;
+		}
+		strafeVelocity = str;
+		forwardVelocity = fwd;
+		angularVelocity = rot;
+	}
+
+	/**
+	 * Moves the pose by the current chassis velocity rotated into the field
+	 * frame.
+	 *
+	 * @param fieldHeading
+	 *            heading in radians to rotate the chassis velocity by
+	 * @param dt
+	 *            time step in seconds
+	 */
+	private void integrate(double fieldHeading, double dt) {
+		double s = sin(fieldHeading);
+		double c = cos(fieldHeading);
+
+		x += (strafeVelocity * c - forwardVelocity * s) * dt;
+		y += (strafeVelocity * s + forwardVelocity * c) * dt;
+	}
+
+	/**
+	 * Sets the current pose.
+	 *
+	 * @param x
+	 *            field x position
+	 * @param y
+	 *            field y position
+	 * @param headingDegrees
+	 *            heading in degrees
+	 */
+	public void resetPose(double x, double y, double headingDegrees) {
+		this.x = x;
+		this.y = y;
+		this.heading = toRadians(headingDegrees);
+	}
+
+	/**
+	 * @return field x position
+	 */
+	public double getX() {
+		return x;
+	}
+
+	/**
+	 * @return field y position
+	 */
+	public double getY() {
+		return y;
+	}
+
+	/**
+	 * @return heading in degrees
+	 */
+	public double getHeading() {
+		return toDegrees(heading);
+	}
+
+	/**
+	 * @return robot-relative strafe velocity from the last update
+	 */
+	public double getStrafeVelocity() {
+		return strafeVelocity;
+	}
+
+	/**
+	 * @return robot-relative forward velocity from the last update
+	 */
+	public double getForwardVelocity() {
+		return forwardVelocity;
+	}
+
+	/**
+	 * @return counter-clockwise angular velocity in radians per second from the
+	 *         last update
+	 */
+	public double getAngularVelocity() {
+		return angularVelocity;
+	}
+
+	/**
+	 * Converts the angular velocity into a {@link SwerveDrive} rotation command:
+	 * clockwise positive, and scaled so that 1 moves the farthest module at one
+	 * unit of speed.
+	 * 
+	 * @return rotation command matching the last update
+	 */
+	public double getRotationCommand() {
+		return -angularVelocity * rotationRadius;
+	}
+}
@@ -0,0 +1,35 @@
+package src.libs;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+
+/**
+ * {@link MotorSink} that drives a {@link TalonSRX} in percent output mode.
+ *
+ * @author Team 226
+ *
+ */
+public class TalonSRXSink implements MotorSink {
+
+	private final TalonSRX talon;
+
+	/**
+	 * @param talon
+	 *            {@link TalonSRX} to drive
+	 */
+	public TalonSRXSink(TalonSRX talon) {
+		this.talon = talon;
+	}
+
+	@Override
+	public void set(double output) {
+		talon.set(ControlMode.PercentOutput, output);
+	}
+
+	/**
+	 * @return the {@link TalonSRX} being driven
+	 */
+	public TalonSRX getTalon() {
+		return talon;
+	}
+}
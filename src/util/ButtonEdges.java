@@ -0,0 +1,152 @@
+package src.util;
+
+/**
+ * Edge detection, hold timing and rate limiting for up to 32 buttons at once.
+ * <p>
+ * Keeps the previous and current button states as bitmasks, so finding every
+ * rising and falling edge takes a couple of bitwise operations per update. The
+ * time is given once per update, and every query uses that time.
+ * <p>
+ * Buttons are numbered from 1, like WPILib buttons, so button {@code n} is bit
+ * {@code n - 1} of the bitmask.
+ * 
+ * @author Team 226
+ */
+public class ButtonEdges {
+
+	private int previous;
+	private int current;
+	private double now;
+
+	/**
+	 * Time each button was last pressed, and time each button last fired in
+	 * {@link #every}
+	 */
+	private final double[] pressTime = new double[32];
+	private final double[] lastFired = new double[32];
+
+	/**
+	 * Updates the button states. Call once per loop.
+	 * 
+	 * @param buttons
+	 *            button states, bit {@code n - 1} set if button {@code n} is
+	 *            pressed
+	 * @param timestamp
+	 *            current time in seconds
+	 */
+	public void update(int buttons, double timestamp) {
+		previous = current;
+		current = buttons;
+		now = timestamp;
+
+		int rising = current & ~previous;
+		while (rising != 0) {
+			pressTime[Integer.numberOfTrailingZeros(rising)] = now;
+			rising &= rising - 1;
+		}
+	}
+
+	/**
+	 * @return button states from the last update
+	 */
+	public int getPressedMask() {
+		return current;
+	}
+
+	/**
+	 * @return buttons that were pressed since the update before last
+	 */
+	public int getRisingMask() {
+		return current & ~previous;
+	}
+
+	/**
+	 * @return buttons that were released since the update before last
+	 */
+	public int getFallingMask() {
+		return previous & ~current;
+	}
+
+	/**
+	 * @param button
+	 *            button number, starting at 1
+	 * @return {@code true} if the button is pressed, {@code false} otherwise
+	 */
+	public boolean isPressed(int button) {
+		return (current & bit(button)) != 0;
+	}
+
+	/**
+	 * @param button
+	 *            button number, starting at 1
+	 * @return {@code true} if the button was just pressed, {@code false}
+	 *         otherwise
+	 */
+	public boolean isRising(int button) {
+		return (getRisingMask() & bit(button)) != 0;
+	}
+
+	/**
+	 * @param button
+	 *            button number, starting at 1
+	 * @return {@code true} if the button was just released, {@code false}
+	 *         otherwise
+	 */
+	public boolean isFalling(int button) {
+		return (getFallingMask() & bit(button)) != 0;
+	}
+
+	/**
+	 * @param button
+	 *            button number, starting at 1
+	 * @return how long the button has been held in seconds, or {@code 0} if it
+	 *         is not pressed
+	 */
+	public double getHeldTime(int button) {
+		if (!isPressed(button)) {
+			return 0;
+		}
+		return now - pressTime[button - 1];
+	}
+
+	/**
+	 * @param button
+	 *            button number, starting at 1
+	 * @param seconds
+	 *            how long the button must be held
+	 * @return {@code true} if the button has been held for at least
+	 *         <b>seconds</b>, {@code false} otherwise
+	 */
+	public boolean isHeldFor(int button, double seconds) {
+		return isPressed(button) && now - pressTime[button - 1] >= seconds;
+	}
+
+	/**
+	 * Rate limits a button.
+	 * 
+	 * @param button
+	 *            button number, starting at 1
+	 * @param period
+	 *            interval at which to return {@code true} if the button is pressed
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
+	 *         {@code false} otherwise
+	 */
+	public boolean every(int button, double period) {
+		if (isPressed(button) && now - lastFired[button - 1] > period) {
+			lastFired[button - 1] = now;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return time in seconds given to the last update
+	 */
+	public double getTimestamp() {
+		return now;
+	}
+
+	private static int bit(int button) {
+		return 1 << (button - 1);
+	}
+}
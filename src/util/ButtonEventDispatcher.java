@@ -0,0 +1,277 @@
+package src.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * Polls a button bitmask on a background thread and turns changes into press,
+ * release and hold events. Events are passed to the main robot thread through
+ * a bounded lock-free queue, and their handlers run there when
+ * {@link #dispatch()} is called.
+ * <p>
+ * Handlers should be registered before {@link #start} is called. Buttons are
+ * numbered from 1, like WPILib buttons.
+ * 
+ * @author Team 226
+ */
+public class ButtonEventDispatcher {
+
+	private static final int PRESS = 0;
+	private static final int RELEASE = 1;
+	private static final int HOLD = 2;
+
+	private final IntSupplier buttonSource;
+	private final DoubleSupplier timeSource;
+
+	private final Runnable[][] handlers = new Runnable[3][32];
+	private final double[] holdSeconds = new double[32];
+
+	/**
+	 * Buttons with at least one handler of each type, so idle buttons never
+	 * produce events
+	 */
+	private volatile int pressMask, releaseMask, holdMask;
+
+	/**
+	 * Single producer, single consumer ring of events, each event being
+	 * {@code (type << 5) | bit}
+	 */
+	private final int[] queue;
+	private final int queueMask;
+	private final AtomicLong writeIndex = new AtomicLong();
+	private final AtomicLong readIndex = new AtomicLong();
+	private final AtomicLong droppedEvents = new AtomicLong();
+
+	/**
+	 * State owned by the polling thread
+	 */
+	private int previous;
+	private int holdFired;
+	private final double[] pressTime = new double[32];
+
+	private volatile Thread poller;
+
+	/**
+	 * Construct a new ButtonEventDispatcher.
+	 * 
+	 * @param buttonSource
+	 *            reads the current button bitmask, bit {@code n - 1} set if button
+	 *            {@code n} is pressed
+	 * @param timeSource
+	 *            reads the current time in seconds
+	 * @param capacity
+	 *            number of events the queue can hold, rounded up to a power of
+	 *            two
+	 */
+	public ButtonEventDispatcher(IntSupplier buttonSource, DoubleSupplier timeSource, int capacity) {
+		this.buttonSource = buttonSource;
+		this.timeSource = timeSource;
+
+		int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+		queue = new int[size];
+		queueMask = size - 1;
+	}
+
+	/**
+	 * Registers a handler to run when a button is pressed.
+	 * 
+	 * @param button
+	 *            button number, starting at 1
+	 * @param handler
+	 *            code to run on the main thread
+	 */
+	public void onPress(int button, Runnable handler) {
+		handlers[PRESS][button - 1] = handler;
+		pressMask |= 1 << (button - 1);
+	}
+
+	/**
+	 * Registers a handler to run when a button is released.
+	 * 
+	 * @param button
+	 *            button number, starting at 1
+	 * @param handler
+	 *            code to run on the main thread
+	 */
+	public void onRelease(int button, Runnable handler) {
+		handlers[RELEASE][button - 1] = handler;
+		releaseMask |= 1 << (button - 1);
+	}
+
+	/**
+	 * Registers a handler to run once each time a button has been held for a
+	 * given time.
+	 * 
+	 * @param button
+	 *            button number, starting at 1
+	 * @param seconds
+	 *            how long the button must be held
+	 * @param handler
+	 *            code to run on the main thread
+	 */
+	public void onHold(int button, double seconds, Runnable handler) {
+		handlers[HOLD][button - 1] = handler;
+		holdSeconds[button - 1] = seconds;
+		holdMask |= 1 << (button - 1);
+	}
+
+	/**
+	 * Starts polling the buttons on a background thread.
+	 * 
+	 * @param period
+	 *            time between polls in seconds
+	 */
+	public synchronized void start(double period) {
+		if (poller != null) {
+			return;
+		}
+		long periodNanos = (long) (period * 1e9);
+
+		// Buttons already held count as pressed now, not at time zero
+		previous = buttonSource.getAsInt();
+		holdFired = 0;
+		double now = timeSource.getAsDouble();
+		int bits = previous;
+		while (bits != 0) {
+			pressTime[Integer.numberOfTrailingZeros(bits)] = now;
+			bits &= bits - 1;
+		}
+
+		Thread thread = new Thread(() -> {
+			long next = System.nanoTime();
+			while (!Thread.currentThread().isInterrupted()) {
+				poll();
+				next += periodNanos;
+				long wait = next - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				} else {
+					next = System.nanoTime();
+				}
+			}
+		}, "ButtonEventDispatcher");
+		thread.setDaemon(true);
+		poller = thread;
+		thread.start();
+	}
+
+	/**
+	 * Stops the background polling thread and waits for it to exit, so a
+	 * following {@link #start} never runs two pollers at once.
+	 */
+	public synchronized void stop() {
+		Thread thread = poller;
+		if (thread == null) {
+			return;
+		}
+		poller = null;
+		thread.interrupt();
+
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Reads the buttons once and queues an event for every change that has a
+	 * handler. Called by the polling thread, but may also be called directly
+	 * instead of {@link #start}.
+	 */
+	public void poll() {
+		int buttons = buttonSource.getAsInt();
+		int changed = buttons ^ previous;
+		int holding = holdMask & buttons;
+
+		if (changed == 0 && (holding & ~holdFired) == 0) {
+			return;
+		}
+
+		double now = timeSource.getAsDouble();
+
+		int rising = changed & buttons;
+		int falling = changed & previous;
+		previous = buttons;
+
+		holdFired &= ~changed;
+
+		int bits = rising;
+		while (bits != 0) {
+			int bit = Integer.numberOfTrailingZeros(bits);
+			pressTime[bit] = now;
+			bits &= bits - 1;
+		}
+
+		queueAll(PRESS, rising & pressMask);
+		queueAll(RELEASE, falling & releaseMask);
+
+		bits = holding & ~holdFired;
+		while (bits != 0) {
+			int bit = Integer.numberOfTrailingZeros(bits);
+			if (now - pressTime[bit] >= holdSeconds[bit]) {
+				holdFired |= 1 << bit;
+				queue(HOLD, bit);
+			}
+			bits &= bits - 1;
+		}
+	}
+
+	/**
+	 * Runs the handlers of every queued event. Call once per loop from the main
+	 * robot thread.
+	 * <p>
+	 * Each event is removed from the queue before its handler runs, so if a
+	 * handler throws, the exception is passed on, the handlers before it are not
+	 * run again, and the events after it stay queued for the next call.
+	 * 
+	 * @return number of events dispatched
+	 */
+	public int dispatch() {
+		long read = readIndex.get();
+		long write = writeIndex.get();
+
+		for (long i = read; i < write; i++) {
+			int event = queue[(int) i & queueMask];
+			readIndex.lazySet(i + 1);
+			Runnable handler = handlers[event >>> 5][event & 31];
+			if (handler != null) {
+				handler.run();
+			}
+		}
+
+		return (int) (write - read);
+	}
+
+	/**
+	 * @return number of events dropped because the queue was full
+	 */
+	public long getDroppedEvents() {
+		return droppedEvents.get();
+	}
+
+	private void queueAll(int type, int bits) {
+		while (bits != 0) {
+			queue(type, Integer.numberOfTrailingZeros(bits));
+			bits &= bits - 1;
+		}
+	}
+
+	private void queue(int type, int bit) {
+		long write = writeIndex.get();
+		if (write - readIndex.get() >= queue.length) {
+			droppedEvents.incrementAndGet();
+			return;
+		}
+		queue[(int) write & queueMask] = (type << 5) | bit;
+		writeIndex.lazySet(write + 1);
+	}
+}
@@ -0,0 +1,48 @@
+package src.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time source for {@link LoopScheduler}, so loops can run in real time on the
+ * robot or against a {@link SimulatedClock} in tests.
+ * 
+ * @author Team 226
+ */
+public interface Clock {
+
+	/**
+	 * @return current time in nanoseconds, from an arbitrary origin
+	 */
+	long nanoTime();
+
+	/**
+	 * Waits until the given time.
+	 * 
+	 * @param deadline
+	 *            time in nanoseconds, as returned by {@link #nanoTime()}
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	void sleepUntil(long deadline) throws InterruptedException;
+
+	/**
+	 * Clock backed by {@link System#nanoTime()}.
+	 */
+	Clock SYSTEM = new Clock() {
+		@Override
+		public long nanoTime() {
+			return System.nanoTime();
+		}
+
+		@Override
+		public void sleepUntil(long deadline) throws InterruptedException {
+			long wait;
+			while ((wait = deadline - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(wait);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		}
+	};
+}
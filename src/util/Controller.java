@@ -1,7 +1,6 @@
 package src.util;
 
 import edu.wpi.first.wpilibj.Joystick;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.buttons.Button;
 import edu.wpi.first.wpilibj.buttons.JoystickButton;
 
@@ -9,6 +8,10 @@ import edu.wpi.first.wpilibj.buttons.JoystickButton;
  * A robot Java wrapper class for the Xbox 360. Includes built-in variable
  * joystick deadband.
  * <p>
+ * Every getter reads through the controller's {@link ControllerInput}, so the
+ * individual getters and {@link #snapshot()} apply the same deadband and sign
+ * to the same {@link InputSource}.
+ * <p>
  * 
  * @author Alec Minchington, Team 226
  * 
@@ -20,14 +23,19 @@ public class Controller extends Joystick {
 	private final double DEFAULT_DEADBAND = 0.15;
 	private double deadband;
 
+	private final ControllerInput input;
+	private ButtonEventDispatcher events;
+
 	public Controller(int usbPort) {
 		super(usbPort);
 		this.deadband = DEFAULT_DEADBAND;
+		this.input = new ControllerInput(usbPort, deadband, HALInputSource.getInstance());
 	}
 
 	public Controller(int usbPort, double deadband) {
 		super(usbPort);
 		this.deadband = deadband;
+		this.input = new ControllerInput(usbPort, deadband, HALInputSource.getInstance());
 	}
 
 	private Button A = new JoystickButton(this, 1);
@@ -83,34 +91,162 @@ public class Controller extends Joystick {
 		return RS;
 	}
 
+	// SNAPSHOT
+
+	/**
+	 * Reads every axis, button and the directional pad once and stores them in
+	 * this controller's {@link ControllerState}, and updates the button edges.
+	 * Call once per loop, then read the returned state and
+	 * {@link #getButtonEdges()} instead of calling the individual getters.
+	 * <p>
+	 * 
+	 * @return this controller's state, reused between calls
+	 */
+	public ControllerState snapshot() {
+		return input.snapshot();
+	}
+
+	/**
+	 * Gets the state read by the last call to {@link #snapshot()}.
+	 * 
+	 * @return this controller's state
+	 */
+	public ControllerState getState() {
+		return input.getState();
+	}
+
+	/**
+	 * Gets the rising/falling edges, hold times and rate limits of every button,
+	 * as of the last call to {@link #snapshot()}.
+	 * 
+	 * @return this controller's button edge tracker
+	 */
+	public ButtonEdges getButtonEdges() {
+		return input.getButtonEdges();
+	}
+
+	/**
+	 * Gets the headless part of this controller, which reads through the
+	 * robot's {@link HALInputSource}.
+	 * 
+	 * @return this controller's input handling
+	 */
+	public ControllerInput getInput() {
+		return input;
+	}
+
+	// EVENTS
+
+	/**
+	 * Registers a handler to run on the main thread when a button is pressed.
+	 * Handlers run when {@link #dispatchEvents()} is called.
+	 * 
+	 * @param button
+	 *            button number, starting at 1
+	 * @param handler
+	 *            code to run
+	 */
+	public void onPress(int button, Runnable handler) {
+		getEvents().onPress(button, handler);
+	}
+
+	/**
+	 * Registers a handler to run on the main thread when a button is released.
+	 * Handlers run when {@link #dispatchEvents()} is called.
+	 * 
+	 * @param button
+	 *            button number, starting at 1
+	 * @param handler
+	 *            code to run
+	 */
+	public void onRelease(int button, Runnable handler) {
+		getEvents().onRelease(button, handler);
+	}
+
+	/**
+	 * Registers a handler to run on the main thread once each time a button has
+	 * been held for a given time. Handlers run when {@link #dispatchEvents()} is
+	 * called.
+	 * 
+	 * @param button
+	 *            button number, starting at 1
+	 * @param seconds
+	 *            how long the button must be held
+	 * @param handler
+	 *            code to run
+	 */
+	public void onHold(int button, double seconds, Runnable handler) {
+		getEvents().onHold(button, seconds, handler);
+	}
+
+	/**
+	 * Starts polling the buttons for events on a background thread. Register
+	 * handlers before calling this.
+	 * 
+	 * @param period
+	 *            time between polls in seconds
+	 */
+	public void startEventPolling(double period) {
+		getEvents().start(period);
+	}
+
+	/**
+	 * Stops polling the buttons for events.
+	 */
+	public void stopEventPolling() {
+		if (events != null) {
+			events.stop();
+		}
+	}
+
+	/**
+	 * Runs the handlers of every button event since the last call. Call once per
+	 * loop.
+	 * 
+	 * @return number of events dispatched
+	 */
+	public int dispatchEvents() {
+		if (events == null) {
+			return 0;
+		}
+		return events.dispatch();
+	}
+
+	private ButtonEventDispatcher getEvents() {
+		if (events == null) {
+			events = input.createEventDispatcher(64);
+		}
+		return events;
+	}
+
 	// STICKS
 
 	/**
 	 * @return X-value of the left joystick
 	 */
 	public double getLeftJoystick_X() {
-		return deadband(getX());
+		return input.getLeftX();
 	}
 
 	/**
 	 * @return Y-value of the left joystick
 	 */
 	public double getLeftJoystick_Y() {
-		return deadband(getY());
+		return input.getLeftY();
 	}
 
 	/**
 	 * @return X-value of the right joystick
 	 */
 	public double getRightJoystick_X() {
-		return deadband(getRawAxis(4));
+		return input.getRightX();
 	}
 
 	/**
 	 * @return Y-value of the right joystick
 	 */
 	public double getRightJoystick_Y() {
-		return deadband(getRawAxis(5));
+		return input.getRightY();
 	}
 
 	// BUTTONS
@@ -122,7 +258,7 @@ public class Controller extends Joystick {
 	 * @return {@code true} if the A button is pressed, {@code false} otherwise
 	 */
 	public boolean getAButtonPressed() {
-		return getRawButton(1);
+		return input.isPressed(1);
 	}
 
 	/**
@@ -132,7 +268,7 @@ public class Controller extends Joystick {
 	 * @return {@code true} if the B button is pressed, {@code false} otherwise
 	 */
 	public boolean getBButtonPressed() {
-		return getRawButton(2);
+		return input.isPressed(2);
 	}
 
 	/**
@@ -142,7 +278,7 @@ public class Controller extends Joystick {
 	 * @return {@code true} if the X button is pressed, {@code false} otherwise
 	 */
 	public boolean getXButtonPressed() {
-		return getRawButton(3);
+		return input.isPressed(3);
 	}
 
 	/**
@@ -152,7 +288,7 @@ public class Controller extends Joystick {
 	 * @return {@code true} if the Y button is pressed, {@code false} otherwise
 	 */
 	public boolean getYButtonPressed() {
-		return getRawButton(4);
+		return input.isPressed(4);
 	}
 
 	/**
@@ -162,7 +298,7 @@ public class Controller extends Joystick {
 	 * @return {@code true} if the left bumper is pressed, {@code false} otherwise
 	 */
 	public boolean getLBButtonPressed() {
-		return getRawButton(5);
+		return input.isPressed(5);
 	}
 
 	/**
@@ -172,7 +308,7 @@ public class Controller extends Joystick {
 	 * @return {@code true} if the right bumper is pressed, {@code false} otherwise
 	 */
 	public boolean getRBButtonPressed() {
-		return getRawButton(6);
+		return input.isPressed(6);
 	}
 
 	/**
@@ -182,7 +318,7 @@ public class Controller extends Joystick {
 	 * @return {@code true} if the BACK button is pressed, {@code false} otherwise
 	 */
 	public boolean getBACKButtonPressed() {
-		return getRawButton(7);
+		return input.isPressed(7);
 	}
 
 	/**
@@ -192,7 +328,7 @@ public class Controller extends Joystick {
 	 * @return {@code true} if the START button is pressed, {@code false} otherwise
 	 */
 	public boolean getSTARTButtonPressed() {
-		return getRawButton(8);
+		return input.isPressed(8);
 	}
 
 	/**
@@ -202,7 +338,7 @@ public class Controller extends Joystick {
 	 * @return {@code true} if the left stick is clicked in, {@code false} otherwise
 	 */
 	public boolean getLSButtonPressed() {
-		return getRawButton(9);
+		return input.isPressed(9);
 	}
 
 	/**
@@ -213,231 +349,157 @@ public class Controller extends Joystick {
 	 *         otherwise
 	 */
 	public boolean getRSButtonPressed() {
-		return getRawButton(10);
+		return input.isPressed(10);
 	}
 
 	/**
-	 * Gets current state of the button.
+	 * Rate limits a button using the button states and time from the last
+	 * {@link #snapshot()}. Controllers that never call {@link #snapshot()} read
+	 * the buttons on each call instead.
 	 * 
+	 * @param button
+	 *            button number, starting at 1
 	 * @param period
 	 *            interval at which to return {@code true} if the button is pressed
-	 * @return {@code true} every {@code period} seconds if thebutton is pressed,
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
 	 *         {@code false} otherwise
 	 */
-	private double latest_A = 0;
+	public boolean getButtonPressed(int button, double period) {
+		return input.getButtonPressed(button, period);
+	}
 
+	/**
+	 * Gets current state of the A button.
+	 * 
+	 * @param period
+	 *            interval at which to return {@code true} if the button is pressed
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
+	 *         {@code false} otherwise
+	 */
 	public boolean getAButtonPressed(double period) {
-		double now = Timer.getFPGATimestamp();
-		if (getRawButton(1)) {
-			if (now - latest_A > period) {
-				latest_A = now;
-				return true;
-			}
-		}
-		return false;
+		return getButtonPressed(1, period);
 	}
 
 	/**
-	 * Gets current state of the button.
+	 * Gets current state of the B button.
 	 * 
 	 * @param period
 	 *            interval at which to return {@code true} if the button is pressed
-	 * @return {@code true} every {@code period} seconds if thebutton is pressed,
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
 	 *         {@code false} otherwise
 	 */
-	private double latest_B = 0;
-
 	public boolean getBButtonPressed(double period) {
-		double now = Timer.getFPGATimestamp();
-		if (getRawButton(2)) {
-			if (now - latest_B > period) {
-				latest_B = now;
-				return true;
-			}
-		}
-		return false;
+		return getButtonPressed(2, period);
 	}
 
 	/**
-	 * Gets current state of the button.
+	 * Gets current state of the X button.
 	 * 
 	 * @param period
 	 *            interval at which to return {@code true} if the button is pressed
-	 * @return {@code true} every {@code period} seconds if thebutton is pressed,
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
 	 *         {@code false} otherwise
 	 */
-	private double latest_X = 0;
-
 	public boolean getXButtonPressed(double period) {
-		double now = Timer.getFPGATimestamp();
-		if (getRawButton(3)) {
-			if (now - latest_X > period) {
-				latest_X = now;
-				return true;
-			}
-		}
-		return false;
+		return getButtonPressed(3, period);
 	}
 
 	/**
-	 * Gets current state of the button.
+	 * Gets current state of the Y button.
 	 * 
 	 * @param period
 	 *            interval at which to return {@code true} if the button is pressed
-	 * @return {@code true} every {@code period} seconds if thebutton is pressed,
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
 	 *         {@code false} otherwise
 	 */
-	private double latest_Y = 0;
-
 	public boolean getYButtonPressed(double period) {
-		double now = Timer.getFPGATimestamp();
-		if (getRawButton(4)) {
-			if (now - latest_Y > period) {
-				latest_Y = now;
-				return true;
-			}
-		}
-		return false;
+		return getButtonPressed(4, period);
 	}
 
 	/**
-	 * Gets current state of the button.
+	 * Gets current state of the left bumper.
 	 * 
 	 * @param period
 	 *            interval at which to return {@code true} if the button is pressed
-	 * @return {@code true} every {@code period} seconds if thebutton is pressed,
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
 	 *         {@code false} otherwise
 	 */
-	private double latest_LB = 0;
-
 	public boolean getLBButtonPressed(double period) {
-		double now = Timer.getFPGATimestamp();
-		if (getRawButton(5)) {
-			if (now - latest_LB > period) {
-				latest_LB = now;
-				return true;
-			}
-		}
-		return false;
+		return getButtonPressed(5, period);
 	}
 
 	/**
-	 * Gets current state of the button.
+	 * Gets current state of the right bumper.
 	 * 
 	 * @param period
 	 *            interval at which to return {@code true} if the button is pressed
-	 * @return {@code true} every {@code period} seconds if thebutton is pressed,
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
 	 *         {@code false} otherwise
 	 */
-	private double latest_RB = 0;
-
 	public boolean getRBButtonPressed(double period) {
-		double now = Timer.getFPGATimestamp();
-		if (getRawButton(6)) {
-			if (now - latest_RB > period) {
-				latest_RB = now;
-				return true;
-			}
-		}
-		return false;
+		return getButtonPressed(6, period);
 	}
 
 	/**
-	 * Gets current state of the button.
+	 * Gets current state of the BACK button.
 	 * 
 	 * @param period
 	 *            interval at which to return {@code true} if the button is pressed
-	 * @return {@code true} every {@code period} seconds if thebutton is pressed,
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
 	 *         {@code false} otherwise
 	 */
-	private double latest_BACK = 0;
-
 	public boolean getBACKButtonPressed(double period) {
-		double now = Timer.getFPGATimestamp();
-		if (getRawButton(7)) {
-			if (now - latest_BACK > period) {
-				latest_BACK = now;
-				return true;
-			}
-		}
-		return false;
+		return getButtonPressed(7, period);
 	}
 
 	/**
-	 * Gets current state of the button.
+	 * Gets current state of the START button.
 	 * 
 	 * @param period
 	 *            interval at which to return {@code true} if the button is pressed
-	 * @return {@code true} every {@code period} seconds if thebutton is pressed,
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
 	 *         {@code false} otherwise
 	 */
-	private double latest_START = 0;
-
 	public boolean getSTARTButtonPressed(double period) {
-		double now = Timer.getFPGATimestamp();
-		if (getRawButton(8)) {
-			if (now - latest_START > period) {
-				latest_START = now;
-				return true;
-			}
-		}
-		return false;
+		return getButtonPressed(8, period);
 	}
 
 	/**
-	 * Gets current state of the button.
+	 * Gets current state of the left stick.
 	 * 
 	 * @param period
 	 *            interval at which to return {@code true} if the button is pressed
-	 * @return {@code true} every {@code period} seconds if thebutton is pressed,
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
 	 *         {@code false} otherwise
 	 */
-	private double latest_LS = 0;
-
 	public boolean getLSButtonPressed(double period) {
-		double now = Timer.getFPGATimestamp();
-		if (getRawButton(9)) {
-			if (now - latest_LS > period) {
-				latest_LS = now;
-				return true;
-			}
-		}
-		return false;
+		return getButtonPressed(9, period);
 	}
 
 	/**
-	 * Gets current state of the button.
+	 * Gets current state of the right stick.
 	 * 
 	 * @param period
 	 *            interval at which to return {@code true} if the button is pressed
-	 * @return {@code true} every {@code period} seconds if thebutton is pressed,
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
 	 *         {@code false} otherwise
 	 */
-	private double latest_RS = 0;
-
 	public boolean getRSButtonPressed(double period) {
-		double now = Timer.getFPGATimestamp();
-		if (getRawButton(10)) {
-			if (now - latest_RS > period) {
-				latest_RS = now;
-				return true;
-			}
-		}
-		return false;
+		return getButtonPressed(10, period);
 	}
 
 	/**
 	 * @return value of the left trigger
 	 */
 	public double getLeftTrigger() {
-		return getRawAxis(2);
+		return input.getLeftTrigger();
 	}
 
 	/**
 	 * @return value of the right trigger
 	 */
 	public double getRightTrigger() {
-		return getRawAxis(3);
+		return input.getRightTrigger();
 	}
 
 	/**
@@ -458,7 +520,7 @@ public class Controller extends Joystick {
 	 * @return value of the directional pad POV-hat (angle 0-360)
 	 */
 	public int getDPad() {
-		return getPOV(0);
+		return input.getPOV();
 	}
 
 	/**
@@ -481,14 +543,6 @@ public class Controller extends Joystick {
 	 *            value to constrain
 	 * @return constrained value
 	 */
-	private double deadband(double val) {
-		if (Math.abs(val) > deadband) {
-			return -val;
-		} else {
-			return 0;
-		}
-	}
-
 	/**
 	 * Gets the joystick deadband threshold.
 	 * 
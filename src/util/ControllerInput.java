@@ -0,0 +1,197 @@
+package src.util;
+
+/**
+ * The input handling of a {@link Controller} without the WPILib joystick, so
+ * it can run off the robot on any {@link InputSource}. Reads snapshots,
+ * applies the deadband and tracks button edges.
+ * 
+ * @author Team 226
+ */
+public class ControllerInput {
+
+	private final int port;
+	private final InputSource source;
+	private final double deadband;
+
+	private final ControllerState state = new ControllerState();
+	private final ButtonEdges edges = new ButtonEdges();
+	private final ButtonEdges polledEdges = new ButtonEdges();
+	private boolean snapshotDriven = false;
+
+	/**
+	 * Construct a new ControllerInput.
+	 * 
+	 * @param port
+	 *            USB port of the controller
+	 * @param deadband
+	 *            joystick deadband threshold
+	 * @param source
+	 *            where to read the controller from
+	 */
+	public ControllerInput(int port, double deadband, InputSource source) {
+		this.port = port;
+		this.deadband = deadband;
+		this.source = source;
+	}
+
+	/**
+	 * Reads every axis, button and the directional pad once and stores them in
+	 * the {@link ControllerState}, and updates the button edges. Call once per
+	 * loop.
+	 * 
+	 * @return the controller's state, reused between calls
+	 */
+	public ControllerState snapshot() {
+		state.leftX = getLeftX();
+		state.leftY = getLeftY();
+		state.rightX = getRightX();
+		state.rightY = getRightY();
+		state.leftTrigger = getLeftTrigger();
+		state.rightTrigger = getRightTrigger();
+		state.buttons = source.getButtons(port);
+		state.pov = getPOV();
+		state.timestamp = source.getTimestamp();
+
+		edges.update(state.buttons, state.timestamp);
+		snapshotDriven = true;
+		return state;
+	}
+
+	// LIVE READS
+
+	/**
+	 * @return X-value of the left joystick, read now, with the deadband applied
+	 */
+	public double getLeftX() {
+		return deadband(source.getAxis(port, 0));
+	}
+
+	/**
+	 * @return Y-value of the left joystick, read now, with the deadband applied
+	 */
+	public double getLeftY() {
+		return deadband(source.getAxis(port, 1));
+	}
+
+	/**
+	 * @return X-value of the right joystick, read now, with the deadband applied
+	 */
+	public double getRightX() {
+		return deadband(source.getAxis(port, 4));
+	}
+
+	/**
+	 * @return Y-value of the right joystick, read now, with the deadband applied
+	 */
+	public double getRightY() {
+		return deadband(source.getAxis(port, 5));
+	}
+
+	/**
+	 * @return value of the left trigger, read now
+	 */
+	public double getLeftTrigger() {
+		return source.getAxis(port, 2);
+	}
+
+	/**
+	 * @return value of the right trigger, read now
+	 */
+	public double getRightTrigger() {
+		return source.getAxis(port, 3);
+	}
+
+	/**
+	 * @param button
+	 *            button number, starting at 1
+	 * @return {@code true} if the button is pressed now, {@code false} otherwise
+	 */
+	public boolean isPressed(int button) {
+		return (source.getButtons(port) & (1 << (button - 1))) != 0;
+	}
+
+	/**
+	 * @return angle of the directional pad POV-hat (angle 0-360) read now, or
+	 *         {@code -1} if not pressed
+	 */
+	public int getPOV() {
+		return source.getPOV(port, 0);
+	}
+
+	// SNAPSHOT
+
+	/**
+	 * @return the state read by the last call to {@link #snapshot()}
+	 */
+	public ControllerState getState() {
+		return state;
+	}
+
+	/**
+	 * @return the button edge tracker, updated by {@link #snapshot()}
+	 */
+	public ButtonEdges getButtonEdges() {
+		return edges;
+	}
+
+	/**
+	 * Rate limits a button using the button states and time from the last
+	 * {@link #snapshot()}. If {@link #snapshot()} has never been called, reads
+	 * the buttons on each call instead, into a separate tracker so the edges
+	 * from {@link #getButtonEdges()} only ever move once per snapshot.
+	 * 
+	 * @param button
+	 *            button number, starting at 1
+	 * @param period
+	 *            interval at which to return {@code true} if the button is pressed
+	 * @return {@code true} every {@code period} seconds if the button is pressed,
+	 *         {@code false} otherwise
+	 */
+	public boolean getButtonPressed(int button, double period) {
+		if (!snapshotDriven) {
+			polledEdges.update(source.getButtons(port), source.getTimestamp());
+			return polledEdges.every(button, period);
+		}
+		return edges.every(button, period);
+	}
+
+	/**
+	 * Creates a dispatcher for this controller's button events.
+	 * 
+	 * @param capacity
+	 *            number of events the queue can hold
+	 * @return a new dispatcher reading from this controller's source
+	 */
+	public ButtonEventDispatcher createEventDispatcher(int capacity) {
+		return new ButtonEventDispatcher(() -> source.getButtons(port), source::getTimestamp, capacity);
+	}
+
+	/**
+	 * Constrains the given value to outside of the range of +/- deadband.
+	 * 
+	 * @param val
+	 *            value to constrain
+	 * @return constrained value
+	 */
+	public double deadband(double val) {
+		if (Math.abs(val) > deadband) {
+			return -val;
+		} else {
+			return 0;
+		}
+	}
+
+	/**
+	 * @return USB port of the controller
+	 */
+	public int getPort() {
+		return port;
+	}
+
+	/**
+	 * @return value of the joystick deadband threshold
+	 */
+	public double getDeadband() {
+		return deadband;
+	}
+}
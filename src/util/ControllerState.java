@@ -0,0 +1,60 @@
+package src.util;
+
+/**
+ * The state of every axis, button and the directional pad of a
+ * {@link Controller}, read all at once by {@link Controller#snapshot()}.
+ * <p>
+ * One instance is reused by each controller, so reading a snapshot allocates
+ * nothing and makes no calls into the driver station.
+ * 
+ * @author Team 226
+ */
+public class ControllerState {
+
+	/**
+	 * Joystick values, with the controller's deadband applied
+	 */
+	public double leftX, leftY, rightX, rightY;
+
+	/**
+	 * Trigger values
+	 */
+	public double leftTrigger, rightTrigger;
+
+	/**
+	 * Button states, bit {@code n - 1} set if button {@code n} is pressed
+	 */
+	public int buttons;
+
+	/**
+	 * Angle of the directional pad POV-hat (angle 0-360), or {@code -1} if not
+	 * pressed
+	 */
+	public int pov;
+
+	/**
+	 * FPGA timestamp in seconds at which the snapshot was taken
+	 */
+	public double timestamp;
+
+	/**
+	 * Gets the state of a button in this snapshot.
+	 * 
+	 * @param button
+	 *            button number, starting at 1
+	 * @return {@code true} if the button is pressed, {@code false} otherwise
+	 */
+	public boolean isPressed(int button) {
+		return (buttons & (1 << (button - 1))) != 0;
+	}
+
+	/**
+	 * The right trigger is positive and left trigger is negative This means that
+	 * the two triggers' values add to give the result, so pressing both gives 0.
+	 * 
+	 * @return value of the combined axis of the triggers
+	 */
+	public double getTriggers() {
+		return leftTrigger - rightTrigger;
+	}
+}
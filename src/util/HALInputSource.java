@@ -0,0 +1,78 @@
+package src.util;
+
+import java.util.Arrays;
+
+import edu.wpi.first.wpilibj.AnalogInput;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * {@link InputSource} that reads the robot's driver station, analog inputs and
+ * FPGA clock.
+ * <p>
+ * WPILib only allows one {@link AnalogInput} per channel, so analog channels
+ * must be registered with the object that owns them before they can be read.
+ * {@link Photoeye} registers itself.
+ * 
+ * @author Team 226
+ */
+public class HALInputSource implements InputSource {
+
+	private static final HALInputSource INSTANCE = new HALInputSource();
+
+	private AnalogInput[] analogInputs = new AnalogInput[8];
+
+	private HALInputSource() {
+	}
+
+	/**
+	 * @return the robot's input source
+	 */
+	public static HALInputSource getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Makes an analog input readable through this source.
+	 * 
+	 * @param input
+	 *            analog input to read for its channel
+	 */
+	public synchronized void registerAnalogInput(AnalogInput input) {
+		int channel = input.getChannel();
+		if (channel >= analogInputs.length) {
+			analogInputs = Arrays.copyOf(analogInputs, channel + 1);
+		}
+		analogInputs[channel] = input;
+	}
+
+	@Override
+	public double getAxis(int port, int axis) {
+		return DriverStation.getInstance().getStickAxis(port, axis);
+	}
+
+	@Override
+	public int getButtons(int port) {
+		return DriverStation.getInstance().getStickButtons(port);
+	}
+
+	@Override
+	public int getPOV(int port, int pov) {
+		return DriverStation.getInstance().getStickPOV(port, pov);
+	}
+
+	@Override
+	public double getVoltage(int channel) {
+		return analogInputs[channel].getVoltage();
+	}
+
+	@Override
+	public double getAverageVoltage(int channel) {
+		return analogInputs[channel].getAverageVoltage();
+	}
+
+	@Override
+	public double getTimestamp() {
+		return Timer.getFPGATimestamp();
+	}
+}
@@ -0,0 +1,58 @@
+package src.util;
+
+/**
+ * Where {@link Controller} and {@link Photoeye} read their inputs from: the
+ * driver station and analog inputs on the robot through {@link HALInputSource},
+ * or scripted traces off the robot through {@link ScriptedInputSource}.
+ * <p>
+ * Buttons are returned as a bitmask with bit {@code n - 1} set if button
+ * {@code n} is pressed.
+ * 
+ * @author Team 226
+ */
+public interface InputSource {
+
+	/**
+	 * @param port
+	 *            USB port of the joystick
+	 * @param axis
+	 *            axis index
+	 * @return raw value of the axis
+	 */
+	double getAxis(int port, int axis);
+
+	/**
+	 * @param port
+	 *            USB port of the joystick
+	 * @return states of every button
+	 */
+	int getButtons(int port);
+
+	/**
+	 * @param port
+	 *            USB port of the joystick
+	 * @param pov
+	 *            POV-hat index
+	 * @return angle of the POV-hat (angle 0-360), or {@code -1} if not pressed
+	 */
+	int getPOV(int port, int pov);
+
+	/**
+	 * @param channel
+	 *            analog input channel
+	 * @return latest voltage of the channel
+	 */
+	double getVoltage(int channel);
+
+	/**
+	 * @param channel
+	 *            analog input channel
+	 * @return averaged voltage of the channel
+	 */
+	double getAverageVoltage(int channel);
+
+	/**
+	 * @return current time in seconds
+	 */
+	double getTimestamp();
+}
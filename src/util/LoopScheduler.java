@@ -0,0 +1,196 @@
+package src.util;
+
+import java.util.Arrays;
+
+/**
+ * Runs an ordered set of stages, such as reading inputs, calculating drive
+ * kinematics and writing outputs, at a fixed period.
+ * <p>
+ * Cycle starts are scheduled on a fixed grid, so a late cycle does not push
+ * back the ones after it. Each cycle records its start jitter and execution
+ * time, and cycles that take longer than the period are counted as overruns.
+ * Any missed starts are skipped rather than run back to back.
+ * 
+ * @author Team 226
+ */
+public class LoopScheduler {
+
+	private final Clock clock;
+	private final long periodNanos;
+
+	private Runnable[] stages = new Runnable[0];
+
+	private long nextStart;
+	private boolean started = false;
+
+	private long cycles;
+	private long overruns;
+	private long lastJitter, maxJitter, totalJitter;
+	private long lastExecution, maxExecution, totalExecution;
+
+	private volatile boolean running;
+
+	/**
+	 * Construct a new LoopScheduler.
+	 * 
+	 * @param clock
+	 *            time source
+	 * @param period
+	 *            time between cycle starts in seconds, at least one nanosecond
+	 */
+	public LoopScheduler(Clock clock, double period) {
+		long periodNanos = Math.round(period * 1e9);
+		if (periodNanos < 1) {
+			throw new IllegalArgumentException("Period must be at least 1 ns, was " + period + " s");
+		}
+		this.clock = clock;
+		this.periodNanos = periodNanos;
+	}
+
+	/**
+	 * Adds a stage to run each cycle, after the stages already added.
+	 * 
+	 * @param stage
+	 *            code to run
+	 */
+	public void addStage(Runnable stage) {
+		stages = Arrays.copyOf(stages, stages.length + 1);
+		stages[stages.length - 1] = stage;
+	}
+
+	/**
+	 * Waits for the next scheduled start, then runs every stage once.
+	 * 
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public void runCycle() throws InterruptedException {
+		if (!started) {
+			nextStart = clock.nanoTime();
+			started = true;
+		}
+		clock.sleepUntil(nextStart);
+
+		long start = clock.nanoTime();
+		for (int i = 0; i < stages.length; i++) {
+			stages[i].run();
+		}
+		long end = clock.nanoTime();
+
+		lastJitter = start - nextStart;
+		lastExecution = end - start;
+		maxJitter = Math.max(maxJitter, lastJitter);
+		maxExecution = Math.max(maxExecution, lastExecution);
+		totalJitter += lastJitter;
+		totalExecution += lastExecution;
+		cycles++;
+
+		nextStart += periodNanos;
+		if (end > nextStart) {
+			overruns++;
+			nextStart += ((end - nextStart) / periodNanos + 1) * periodNanos;
+		}
+	}
+
+	/**
+	 * Runs a fixed number of cycles on the calling thread.
+	 * 
+	 * @param count
+	 *            number of cycles to run
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public void run(long count) throws InterruptedException {
+		for (long i = 0; i < count; i++) {
+			runCycle();
+		}
+	}
+
+	/**
+	 * Runs cycles on the calling thread until {@link #stop()} is called or the
+	 * thread is interrupted.
+	 */
+	public void run() {
+		running = true;
+		try {
+			while (running) {
+				runCycle();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Stops {@link #run()} after the current cycle.
+	 */
+	public void stop() {
+		running = false;
+	}
+
+	/**
+	 * Clears all recorded cycle metrics.
+	 */
+	public void resetMetrics() {
+		cycles = 0;
+		overruns = 0;
+		lastJitter = maxJitter = totalJitter = 0;
+		lastExecution = maxExecution = totalExecution = 0;
+	}
+
+	/**
+	 * @return number of cycles run
+	 */
+	public long getCycles() {
+		return cycles;
+	}
+
+	/**
+	 * @return number of cycles that ran past the start of the next cycle
+	 */
+	public long getOverruns() {
+		return overruns;
+	}
+
+	/**
+	 * @return how late the last cycle started, in nanoseconds
+	 */
+	public long getLastJitter() {
+		return lastJitter;
+	}
+
+	/**
+	 * @return how late the latest-starting cycle started, in nanoseconds
+	 */
+	public long getMaxJitter() {
+		return maxJitter;
+	}
+
+	/**
+	 * @return average start delay of all cycles, in nanoseconds
+	 */
+	public double getMeanJitter() {
+		return cycles == 0 ? 0 : (double) totalJitter / cycles;
+	}
+
+	/**
+	 * @return how long the last cycle took to run, in nanoseconds
+	 */
+	public long getLastExecution() {
+		return lastExecution;
+	}
+
+	/**
+	 * @return longest time a cycle took to run, in nanoseconds
+	 */
+	public long getMaxExecution() {
+		return maxExecution;
+	}
+
+	/**
+	 * @return average time a cycle took to run, in nanoseconds
+	 */
+	public double getMeanExecution() {
+		return cycles == 0 ? 0 : (double) totalExecution / cycles;
+	}
+}
@@ -13,22 +13,88 @@ public class Photoeye extends AnalogInput {
 
 	private final double DEFAULT_MINIMUM = 0.5;
 	private double minVolts;
+	private final PhotoeyeInput input;
 
 	public Photoeye(int AnalogPort) {
 		super(AnalogPort);
 		minVolts = DEFAULT_MINIMUM;
+		HALInputSource.getInstance().registerAnalogInput(this);
+		input = new PhotoeyeInput(AnalogPort, minVolts, HALInputSource.getInstance());
 	}
 
 	public Photoeye(int AnalogPort, double minVoltage) {
 		super(AnalogPort);
 		minVolts = minVoltage;
+		HALInputSource.getInstance().registerAnalogInput(this);
+		input = new PhotoeyeInput(AnalogPort, minVolts, HALInputSource.getInstance());
 	}
 
+	/**
+	 * Gets whether the sensor is covered. With a filter set, takes one averaged
+	 * sample and returns the filtered state. Not for sensors given to a
+	 * {@link PhotoeyeSampler}, which must be read through the sampler.
+	 * 
+	 * @return {@code true} if the sensor is covered, {@code false} otherwise
+	 */
 	public boolean getCovered() {
-		if (this.getVoltage() < minVolts) {
-			return false;
-		} else {
-			return true;
-		}
+		return input.getCovered();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Filters the sensor output. Also sets the FPGA's oversampling and averaging
+	 * for this input, so each sample given to the filter is already averaged in
+	 * hardware.
+	 * 
+	 * @param filter
+	 *            filter to use
+	 * @param oversampleBits
+	 *            the FPGA accumulates 2^oversampleBits samples
+	 * @param averageBits
+	 *            the FPGA averages 2^averageBits samples
+	 */
+	public void setFilter(PhotoeyeFilter filter, int oversampleBits, int averageBits) {
+		setOversampleBits(oversampleBits);
+		setAverageBits(averageBits);
+		input.setFilter(filter);
+	}
+
+	/**
+	 * Removes the filter, going back to comparing single samples against the
+	 * minimum voltage.
+	 */
+	public void clearFilter() {
+		input.setFilter(null);
+	}
+
+	/**
+	 * Gets the distance to the nearest object, using the averaged voltage.
+	 * Uses the typical GP2Y0A21YK curve in centimeters unless a calibrated
+	 * table has been set.
+	 * 
+	 * @return distance to the nearest object
+	 */
+	public double getDistance() {
+		return input.getDistance();
+	}
+
+	/**
+	 * Sets the table used by {@link #getDistance()}, such as one loaded from a
+	 * calibration file with {@link PhotoeyeDistanceTable#load}.
+	 * 
+	 * @param table
+	 *            voltage to distance table
+	 */
+	public void setDistanceTable(PhotoeyeDistanceTable table) {
+		input.setDistanceTable(table);
+	}
+
+	/**
+	 * Gets the headless part of this sensor, which reads through the robot's
+	 * {@link HALInputSource}.
+	 * 
+	 * @return this sensor's sensing logic
+	 */
+	public PhotoeyeInput getInput() {
+		return input;
+	}
+}
@@ -0,0 +1,164 @@
+package src.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Voltage to distance lookup table for a ranging {@link Photoeye}.
+ * <p>
+ * The sensor's curve is given as calibration points, which are resampled once
+ * onto an evenly spaced voltage grid. Between calibration points distance is
+ * interpolated linearly in 1/distance, which the GP2Y0A21YK's output follows
+ * closely. A lookup is then a clamp, one index calculation and one linear
+ * interpolation between two array entries.
+ * 
+ * @author Team 226
+ */
+public class PhotoeyeDistanceTable {
+
+	/**
+	 * Typical output of the Sharp GP2Y0A21YK in volts, read from the datasheet
+	 * curve for the distances in {@link #GP2Y0A21YK_CENTIMETERS}
+	 */
+	public static final double[] GP2Y0A21YK_VOLTS = { 0.40, 0.44, 0.50, 0.60, 0.72, 0.80, 0.92, 1.08, 1.30, 1.65,
+			2.30 };
+
+	/**
+	 * Distances in centimeters for {@link #GP2Y0A21YK_VOLTS}
+	 */
+	public static final double[] GP2Y0A21YK_CENTIMETERS = { 80, 70, 60, 50, 40, 35, 30, 25, 20, 15, 10 };
+
+	private static final int DEFAULT_SIZE = 256;
+
+	private final double minVolts;
+	private final double maxVolts;
+	private final double binsPerVolt;
+	private final double[] distances;
+
+	/**
+	 * Construct a new PhotoeyeDistanceTable from calibration points.
+	 * 
+	 * @param volts
+	 *            sensor voltage at each calibration point, in increasing order
+	 * @param distances
+	 *            distance at each calibration point, in any unit
+	 * @param size
+	 *            number of entries in the resampled table
+	 */
+	public PhotoeyeDistanceTable(double[] volts, double[] distances, int size) {
+		if (volts.length != distances.length || volts.length < 2) {
+			throw new IllegalArgumentException("Need at least two matching calibration points");
+		}
+		if (size < 2) {
+			throw new IllegalArgumentException("Size must be at least 2");
+		}
+		for (int i = 1; i < volts.length; i++) {
+			if (volts[i] <= volts[i - 1]) {
+				throw new IllegalArgumentException("Calibration voltages must be increasing");
+			}
+		}
+
+		minVolts = volts[0];
+		maxVolts = volts[volts.length - 1];
+		binsPerVolt = (size - 1) / (maxVolts - minVolts);
+		this.distances = new double[size];
+
+		int segment = 0;
+		for (int i = 0; i < size; i++) {
+			double v = minVolts + i / binsPerVolt;
+			while (segment < volts.length - 2 && v > volts[segment + 1]) {
+				segment++;
+			}
+
+			double t = (v - volts[segment]) / (volts[segment + 1] - volts[segment]);
+			double inverse = (1 - t) / distances[segment] + t / distances[segment + 1];
+			this.distances[i] = 1 / inverse;
+		}
+	}
+
+	/**
+	 * Construct a new PhotoeyeDistanceTable for the typical GP2Y0A21YK curve, in
+	 * centimeters.
+	 */
+	public PhotoeyeDistanceTable() {
+		this(GP2Y0A21YK_VOLTS, GP2Y0A21YK_CENTIMETERS, DEFAULT_SIZE);
+	}
+
+	/**
+	 * Loads calibration points from a text file. Each line holds a voltage and a
+	 * distance separated by a comma or whitespace; blank lines and lines
+	 * starting with {@code #} are skipped. Points may be in any order.
+	 * 
+	 * @param path
+	 *            path of the calibration file
+	 * @param size
+	 *            number of entries in the resampled table
+	 * @return a table built from the calibration points
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	public static PhotoeyeDistanceTable load(String path, int size) throws IOException {
+		List<String> lines = Files.readAllLines(Paths.get(path));
+
+		double[] volts = new double[lines.size()];
+		double[] distances = new double[lines.size()];
+		int n = 0;
+		for (String line : lines) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] parts = line.split("[,\\s]+");
+			if (parts.length < 2) {
+				throw new IOException("Bad calibration line: " + line);
+			}
+			try {
+				volts[n] = Double.parseDouble(parts[0]);
+				distances[n] = Double.parseDouble(parts[1]);
+			} catch (NumberFormatException e) {
+				throw new IOException("Bad calibration line: " + line, e);
+			}
+			n++;
+		}
+
+		// Sort by voltage
+		for (int i = 1; i < n; i++) {
+			double v = volts[i];
+			double d = distances[i];
+			int j = i - 1;
+			while (j >= 0 && volts[j] > v) {
+				volts[j + 1] = volts[j];
+				distances[j + 1] = distances[j];
+				j--;
+			}
+			volts[j + 1] = v;
+			distances[j + 1] = d;
+		}
+
+		return new PhotoeyeDistanceTable(Arrays.copyOf(volts, n), Arrays.copyOf(distances, n),
+				size);
+	}
+
+	/**
+	 * Looks up the distance for a sensor voltage. Voltages outside of the
+	 * calibrated range return the distance at the nearest end of the range.
+	 * 
+	 * @param volts
+	 *            sensor voltage
+	 * @return distance, in the unit of the calibration points
+	 */
+	public double getDistance(double volts) {
+		double f = (volts - minVolts) * binsPerVolt;
+		if (f <= 0) {
+			return distances[0];
+		}
+		int i = (int) f;
+		if (i >= distances.length - 1) {
+			return distances[distances.length - 1];
+		}
+		return distances[i] + (f - i) * (distances[i + 1] - distances[i]);
+	}
+}
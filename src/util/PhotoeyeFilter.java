@@ -0,0 +1,115 @@
+package src.util;
+
+/**
+ * Noise filter for a {@link Photoeye}. Averages the last few voltage samples,
+ * then applies separate covered and uncovered thresholds and a debounce time
+ * so the output does not flicker.
+ * <p>
+ * Samples are kept in a fixed ring buffer with a running sum, so each update
+ * takes constant time and allocates nothing.
+ * 
+ * @author Team 226
+ */
+public class PhotoeyeFilter {
+
+	private final double[] samples;
+	private int next;
+	private int count;
+	private double sum;
+
+	private final double coveredVolts;
+	private final double uncoveredVolts;
+	private final double debounce;
+
+	private boolean covered;
+	private boolean pending;
+	private double pendingSince;
+
+	/**
+	 * Construct a new PhotoeyeFilter.
+	 * 
+	 * @param sampleCount
+	 *            number of samples to average
+	 * @param coveredVolts
+	 *            average voltage at or above which the sensor becomes covered
+	 * @param uncoveredVolts
+	 *            average voltage below which the sensor becomes uncovered
+	 * @param debounce
+	 *            time in seconds a new state must last before it is reported
+	 */
+	public PhotoeyeFilter(int sampleCount, double coveredVolts, double uncoveredVolts, double debounce) {
+		if (sampleCount < 1) {
+			throw new IllegalArgumentException("Sample count must be at least 1");
+		}
+		if (uncoveredVolts > coveredVolts) {
+			throw new IllegalArgumentException("Uncovered threshold must not be above covered threshold");
+		}
+		this.samples = new double[sampleCount];
+		this.coveredVolts = coveredVolts;
+		this.uncoveredVolts = uncoveredVolts;
+		this.debounce = debounce;
+	}
+
+	/**
+	 * Adds a sample and updates the filtered state.
+	 * 
+	 * @param volts
+	 *            sensor voltage
+	 * @param timestamp
+	 *            time of the sample in seconds
+	 * @return {@code true} if the sensor is covered, {@code false} otherwise
+	 */
+	public boolean update(double volts, double timestamp) {
+		sum += volts - samples[next];
+		samples[next] = volts;
+		next = (next + 1) % samples.length;
+		if (count < samples.length) {
+			count++;
+		}
+
+		double mean = getMean();
+		boolean target = covered ? mean >= uncoveredVolts : mean >= coveredVolts;
+
+		if (target == covered) {
+			pending = false;
+		} else if (!pending) {
+			pending = true;
+			pendingSince = timestamp;
+		}
+
+		if (pending && timestamp - pendingSince >= debounce) {
+			covered = target;
+			pending = false;
+		}
+
+		return covered;
+	}
+
+	/**
+	 * @return {@code true} if the sensor is covered, {@code false} otherwise
+	 */
+	public boolean isCovered() {
+		return covered;
+	}
+
+	/**
+	 * @return average of the samples currently held
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : sum / count;
+	}
+
+	/**
+	 * Forgets all samples and reports uncovered.
+	 */
+	public void reset() {
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = 0;
+		}
+		next = 0;
+		count = 0;
+		sum = 0;
+		covered = false;
+		pending = false;
+	}
+}
@@ -0,0 +1,87 @@
+package src.util;
+
+/**
+ * The sensing logic of a {@link Photoeye} without the WPILib analog input, so
+ * it can run off the robot on any {@link InputSource}.
+ * 
+ * @author Team 226
+ */
+public class PhotoeyeInput {
+
+	private final int channel;
+	private final InputSource source;
+	private final double minVolts;
+
+	private PhotoeyeFilter filter;
+	private PhotoeyeDistanceTable distanceTable;
+
+	/**
+	 * Construct a new PhotoeyeInput.
+	 * 
+	 * @param channel
+	 *            analog input channel of the sensor
+	 * @param minVolts
+	 *            voltage at or above which the sensor is covered, when not
+	 *            filtered
+	 * @param source
+	 *            where to read the sensor from
+	 */
+	public PhotoeyeInput(int channel, double minVolts, InputSource source) {
+		this.channel = channel;
+		this.minVolts = minVolts;
+		this.source = source;
+	}
+
+	/**
+	 * Gets whether the sensor is covered. With a filter set, takes one averaged
+	 * sample and returns the filtered state. Not thread-safe with a filter set,
+	 * so call it from one thread only, which for a sensor given to a
+	 * {@link PhotoeyeSampler} is the sampling thread.
+	 * 
+	 * @return {@code true} if the sensor is covered, {@code false} otherwise
+	 */
+	public boolean getCovered() {
+		if (filter != null) {
+			return filter.update(source.getAverageVoltage(channel), source.getTimestamp());
+		}
+		return source.getVoltage(channel) >= minVolts;
+	}
+
+	/**
+	 * Gets the distance to the nearest object, using the averaged voltage.
+	 * Uses the typical GP2Y0A21YK curve in centimeters unless a calibrated
+	 * table has been set.
+	 * 
+	 * @return distance to the nearest object
+	 */
+	public double getDistance() {
+		if (distanceTable == null) {
+			distanceTable = new PhotoeyeDistanceTable();
+		}
+		return distanceTable.getDistance(source.getAverageVoltage(channel));
+	}
+
+	/**
+	 * @param filter
+	 *            filter to use, or {@code null} to compare single samples against
+	 *            the minimum voltage
+	 */
+	public void setFilter(PhotoeyeFilter filter) {
+		this.filter = filter;
+	}
+
+	/**
+	 * @param table
+	 *            voltage to distance table used by {@link #getDistance()}
+	 */
+	public void setDistanceTable(PhotoeyeDistanceTable table) {
+		distanceTable = table;
+	}
+
+	/**
+	 * @return analog input channel of the sensor
+	 */
+	public int getChannel() {
+		return channel;
+	}
+}
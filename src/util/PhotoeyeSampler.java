@@ -0,0 +1,193 @@
+package src.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Reads a set of photoeyes on a background thread at a fixed rate, so the
+ * control loop can get their latest states without waiting on the HAL.
+ * <p>
+ * Sensors are read through their {@link PhotoeyeInput}, and samples are timed
+ * and scheduled with a {@link Clock}, so the sampler also runs off the robot
+ * on a {@link ScriptedInputSource} and {@link SimulatedClock}. Each sensor's
+ * state and sample time are packed into a single {@code long} and published
+ * atomically, so reads take nanoseconds, never block and allocate nothing.
+ * <p>
+ * The sampling thread calls {@link PhotoeyeInput#getCovered()}, which updates
+ * the sensor's {@link PhotoeyeFilter}, and filters are not thread-safe. Once a
+ * sensor is given to a sampler, read it only through the sampler, never
+ * through {@link Photoeye#getCovered()} or its input, and set its filter
+ * before calling {@link #start}.
+ *
+ * @author Team 226
+ */
+public class PhotoeyeSampler {
+
+	private final PhotoeyeInput[] inputs;
+	private final Clock clock;
+
+	/**
+	 * Latest sample of each sensor, as the clock time in nanoseconds with the
+	 * lowest bit replaced by the covered state, or {@link #NO_SAMPLE}
+	 */
+	private final AtomicLongArray latest;
+
+	/**
+	 * Marks a sensor that has not been sampled yet. A clock time of 0 is a valid
+	 * sample time, so 0 cannot be used.
+	 */
+	private static final long NO_SAMPLE = Long.MIN_VALUE;
+
+	private Thread sampler;
+
+	/**
+	 * Construct a new PhotoeyeSampler of robot sensors, timed by
+	 * {@link Clock#SYSTEM}.
+	 *
+	 * @param photoeyes
+	 *            sensors to sample, in the order they will be indexed, and read
+	 *            only through this sampler from now on
+	 */
+	public PhotoeyeSampler(Photoeye... photoeyes) {
+		this(Clock.SYSTEM, inputsOf(photoeyes));
+	}
+
+	/**
+	 * Construct a new PhotoeyeSampler.
+	 *
+	 * @param clock
+	 *            time source for scheduling and timestamping samples
+	 * @param inputs
+	 *            sensors to sample, in the order they will be indexed, and read
+	 *            only through this sampler from now on
+	 */
+	public PhotoeyeSampler(Clock clock, PhotoeyeInput... inputs) {
+		this.clock = clock;
+		this.inputs = inputs.clone();
+		this.latest = new AtomicLongArray(inputs.length);
+		for (int i = 0; i < inputs.length; i++) {
+			latest.set(i, NO_SAMPLE);
+		}
+	}
+
+	private static PhotoeyeInput[] inputsOf(Photoeye[] photoeyes) {
+		PhotoeyeInput[] inputs = new PhotoeyeInput[photoeyes.length];
+		for (int i = 0; i < photoeyes.length; i++) {
+			inputs[i] = photoeyes[i].getInput();
+		}
+		return inputs;
+	}
+
+	/**
+	 * Starts sampling on a background thread.
+	 *
+	 * @param period
+	 *            time between samples in seconds
+	 */
+	public synchronized void start(double period) {
+		if (sampler != null) {
+			return;
+		}
+		long periodNanos = (long) (period * 1e9);
+
+		Thread thread = new Thread(() -> {
+			long next = clock.nanoTime();
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					sample();
+					next += periodNanos;
+					if (next - clock.nanoTime() > 0) {
+						clock.sleepUntil(next);
+					} else {
+						next = clock.nanoTime();
+					}
+				}
+			} catch (InterruptedException e) {
+				// Stopped
+			}
+		}, "PhotoeyeSampler");
+		thread.setDaemon(true);
+		sampler = thread;
+		thread.start();
+	}
+
+	/**
+	 * Stops the background sampling thread and waits for it to exit.
+	 */
+	public synchronized void stop() {
+		Thread thread = sampler;
+		if (thread == null) {
+			return;
+		}
+		sampler = null;
+		thread.interrupt();
+
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Samples every sensor once and publishes the results. Called by the
+	 * sampling thread, but may also be called directly instead of
+	 * {@link #start}.
+	 */
+	public void sample() {
+		for (int i = 0; i < inputs.length; i++) {
+			boolean covered = inputs[i].getCovered();
+			long packed = (clock.nanoTime() & ~1L) | (covered ? 1 : 0);
+			// A real sample can only collide with the marker at the very bottom
+			// of the clock's range; publish it 2 ns later
+			latest.lazySet(i, packed == NO_SAMPLE ? NO_SAMPLE + 2 : packed);
+		}
+	}
+
+	/**
+	 * Gets the latest published state of a sensor.
+	 *
+	 * @param index
+	 *            index of the sensor, in the order given to the constructor
+	 * @return {@code true} if the sensor was covered, {@code false} otherwise,
+	 *         including if it has not been sampled yet
+	 */
+	public boolean getCovered(int index) {
+		return (latest.get(index) & 1) != 0;
+	}
+
+	/**
+	 * Gets the time of the latest published state of a sensor.
+	 *
+	 * @param index
+	 *            index of the sensor, in the order given to the constructor
+	 * @return clock time of the sample in seconds, or {@code NaN} if the sensor
+	 *         has not been sampled yet
+	 */
+	public double getTimestamp(int index) {
+		long sample = latest.get(index);
+		return sample == NO_SAMPLE ? Double.NaN : (sample & ~1L) * 1e-9;
+	}
+
+	/**
+	 * @param index
+	 *            index of the sensor, in the order given to the constructor
+	 * @return {@code true} if the sensor has been sampled, {@code false}
+	 *         otherwise
+	 */
+	public boolean hasSample(int index) {
+		return latest.get(index) != NO_SAMPLE;
+	}
+
+	/**
+	 * @return number of sensors being sampled
+	 */
+	public int size() {
+		return inputs.length;
+	}
+}
@@ -0,0 +1,232 @@
+package src.util;
+
+/**
+ * {@link InputSource} that plays back recorded or synthetic traces, so the
+ * input side of the library can run without a robot or the HAL.
+ * <p>
+ * Inputs can be set directly or given as traces with one value per cycle.
+ * {@link #advance()} moves every trace to its next value and the clock forward
+ * by one period; a trace that runs out holds its last value. Reading allocates
+ * nothing.
+ * 
+ * @author Team 226
+ */
+public class ScriptedInputSource implements InputSource {
+
+	private static final int PORTS = 6;
+	private static final int AXES = 12;
+	private static final int CHANNELS = 8;
+
+	private final double period;
+	private long cycle;
+
+	private final double[][] axes = new double[PORTS][AXES];
+	private final int[] buttons = new int[PORTS];
+	private final int[] povs = new int[PORTS];
+	private final double[] voltages = new double[CHANNELS];
+
+	private final double[][][] axisTraces = new double[PORTS][AXES][];
+	private final int[][] buttonTraces = new int[PORTS][];
+	private final int[][] povTraces = new int[PORTS][];
+	private final double[][] voltageTraces = new double[CHANNELS][];
+
+	/**
+	 * Construct a new ScriptedInputSource.
+	 * 
+	 * @param period
+	 *            time in seconds that each cycle moves the clock forward
+	 */
+	public ScriptedInputSource(double period) {
+		this.period = period;
+		for (int i = 0; i < PORTS; i++) {
+			povs[i] = -1;
+		}
+	}
+
+	/**
+	 * Moves every trace to its next value and the clock forward one period.
+	 */
+	public void advance() {
+		cycle++;
+		apply();
+	}
+
+	/**
+	 * Moves every trace back to its first value and the clock back to zero.
+	 */
+	public void rewind() {
+		cycle = 0;
+		apply();
+	}
+
+	/**
+	 * @return number of cycles advanced since the start
+	 */
+	public long getCycle() {
+		return cycle;
+	}
+
+	/**
+	 * Sets an axis until its trace, if any, next moves.
+	 * 
+	 * @param port
+	 *            USB port of the joystick
+	 * @param axis
+	 *            axis index
+	 * @param value
+	 *            raw value of the axis
+	 */
+	public void setAxis(int port, int axis, double value) {
+		axes[port][axis] = value;
+	}
+
+	/**
+	 * Sets the button states until their trace, if any, next moves.
+	 * 
+	 * @param port
+	 *            USB port of the joystick
+	 * @param value
+	 *            states of every button
+	 */
+	public void setButtons(int port, int value) {
+		buttons[port] = value;
+	}
+
+	/**
+	 * Sets the POV-hat until its trace, if any, next moves.
+	 * 
+	 * @param port
+	 *            USB port of the joystick
+	 * @param value
+	 *            angle of the POV-hat, or {@code -1} if not pressed
+	 */
+	public void setPOV(int port, int value) {
+		povs[port] = value;
+	}
+
+	/**
+	 * Sets an analog voltage until its trace, if any, next moves.
+	 * 
+	 * @param channel
+	 *            analog input channel
+	 * @param value
+	 *            voltage of the channel
+	 */
+	public void setVoltage(int channel, double value) {
+		voltages[channel] = value;
+	}
+
+	/**
+	 * Plays back an axis, one value per cycle.
+	 * 
+	 * @param port
+	 *            USB port of the joystick
+	 * @param axis
+	 *            axis index
+	 * @param trace
+	 *            raw value of the axis each cycle
+	 */
+	public void setAxisTrace(int port, int axis, double[] trace) {
+		axisTraces[port][axis] = trace;
+		apply();
+	}
+
+	/**
+	 * Plays back the button states, one bitmask per cycle.
+	 * 
+	 * @param port
+	 *            USB port of the joystick
+	 * @param trace
+	 *            states of every button each cycle
+	 */
+	public void setButtonTrace(int port, int[] trace) {
+		buttonTraces[port] = trace;
+		apply();
+	}
+
+	/**
+	 * Plays back the POV-hat, one angle per cycle.
+	 * 
+	 * @param port
+	 *            USB port of the joystick
+	 * @param trace
+	 *            angle of the POV-hat each cycle, or {@code -1} if not pressed
+	 */
+	public void setPOVTrace(int port, int[] trace) {
+		povTraces[port] = trace;
+		apply();
+	}
+
+	/**
+	 * Plays back an analog voltage, one value per cycle.
+	 * 
+	 * @param channel
+	 *            analog input channel
+	 * @param trace
+	 *            voltage of the channel each cycle
+	 */
+	public void setVoltageTrace(int channel, double[] trace) {
+		voltageTraces[channel] = trace;
+		apply();
+	}
+
+	@Override
+	public double getAxis(int port, int axis) {
+		return axes[port][axis];
+	}
+
+	@Override
+	public int getButtons(int port) {
+		return buttons[port];
+	}
+
+	@Override
+	public int getPOV(int port, int pov) {
+		return pov == 0 ? povs[port] : -1;
+	}
+
+	@Override
+	public double getVoltage(int channel) {
+		return voltages[channel];
+	}
+
+	@Override
+	public double getAverageVoltage(int channel) {
+		return voltages[channel];
+	}
+
+	@Override
+	public double getTimestamp() {
+		return cycle * period;
+	}
+
+	/**
+	 * Loads the current cycle's value from every trace.
+	 */
+	private void apply() {
+		for (int port = 0; port < PORTS; port++) {
+			for (int axis = 0; axis < AXES; axis++) {
+				double[] trace = axisTraces[port][axis];
+				if (trace != null && trace.length > 0) {
+					axes[port][axis] = trace[index(trace.length)];
+				}
+			}
+			if (buttonTraces[port] != null && buttonTraces[port].length > 0) {
+				buttons[port] = buttonTraces[port][index(buttonTraces[port].length)];
+			}
+			if (povTraces[port] != null && povTraces[port].length > 0) {
+				povs[port] = povTraces[port][index(povTraces[port].length)];
+			}
+		}
+		for (int channel = 0; channel < CHANNELS; channel++) {
+			double[] trace = voltageTraces[channel];
+			if (trace != null && trace.length > 0) {
+				voltages[channel] = trace[index(trace.length)];
+			}
+		}
+	}
+
+	private int index(int length) {
+		return (int) Math.min(cycle, length - 1);
+	}
+}
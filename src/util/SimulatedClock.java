@@ -0,0 +1,35 @@
+package src.util;
+
+/**
+ * {@link Clock} that only moves when told to. Sleeping jumps straight to the
+ * deadline, so loops run as fast as the code allows while seeing the timing
+ * they would see in real time.
+ * 
+ * @author Team 226
+ */
+public class SimulatedClock implements Clock {
+
+	private long now;
+
+	@Override
+	public long nanoTime() {
+		return now;
+	}
+
+	@Override
+	public void sleepUntil(long deadline) {
+		if (deadline > now) {
+			now = deadline;
+		}
+	}
+
+	/**
+	 * Moves the clock forward, for example to simulate time spent running code.
+	 * 
+	 * @param nanos
+	 *            time to advance in nanoseconds
+	 */
+	public void advance(long nanos) {
+		now += nanos;
+	}
+}
@@ -0,0 +1,225 @@
+package src.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Reads a log written by {@link TelemetryRecorder}, oldest record first.
+ * <p>
+ * The file is memory-mapped and read in place, so stepping through records
+ * allocates nothing. Can also be run from the command line to convert a log to
+ * CSV:
+ * 
+ * <pre>
+ * java src.util.TelemetryReader log.bin [out.csv]
+ * </pre>
+ * 
+ * @author Team 226
+ */
+public class TelemetryReader {
+
+	private final MappedByteBuffer buffer;
+
+	private final String[] fields;
+	private final int capacity;
+	private final int headerSize;
+	private final int recordSize;
+
+	private final long first;
+	private final long end;
+
+	private long index;
+	private int recordOffset;
+
+	/**
+	 * Construct a new TelemetryReader.
+	 * 
+	 * @param path
+	 *            path of the log file
+	 * @throws IOException
+	 *             if the file cannot be read or is not a telemetry log
+	 */
+	public TelemetryReader(String path) throws IOException {
+		long length;
+		try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+			length = file.length();
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		if (length < TelemetryRecorder.FIXED_HEADER || buffer.getInt() != TelemetryRecorder.MAGIC) {
+			throw new IOException("Not a telemetry log: " + path);
+		}
+		int version = buffer.getInt();
+		if (version != TelemetryRecorder.VERSION) {
+			throw new IOException("Unsupported telemetry log version " + version);
+		}
+		int fieldCount = buffer.getInt();
+		capacity = buffer.getInt();
+		long count = buffer.getLong();
+		headerSize = buffer.getInt();
+		buffer.getInt();
+
+		// Check the header against the file before trusting any offset from it
+		if (fieldCount < 0 || capacity < 1 || count < 0 || headerSize < TelemetryRecorder.FIXED_HEADER) {
+			throw new IOException("Corrupt telemetry log header: " + path);
+		}
+		long expectedLength = headerSize + 8L * (1 + fieldCount) * capacity;
+		if (length < expectedLength) {
+			throw new IOException("Truncated telemetry log: " + path + " is " + length + " bytes, header needs "
+					+ expectedLength);
+		}
+
+		fields = new String[fieldCount];
+		for (int i = 0; i < fieldCount; i++) {
+			int nameLength = buffer.position() + 2 <= headerSize ? buffer.getShort() : -1;
+			if (nameLength < 0 || buffer.position() + nameLength > headerSize) {
+				throw new IOException("Corrupt telemetry log header: " + path);
+			}
+			byte[] name = new byte[nameLength];
+			buffer.get(name);
+			fields[i] = new String(name, StandardCharsets.UTF_8);
+		}
+		recordSize = 8 * (1 + fieldCount);
+
+		end = count;
+		first = Math.max(0, count - capacity);
+		rewind();
+	}
+
+	/**
+	 * Moves back to before the oldest record.
+	 */
+	public void rewind() {
+		index = first - 1;
+		recordOffset = -1;
+	}
+
+	/**
+	 * Moves to the next record.
+	 * 
+	 * @return {@code true} if there is a record, {@code false} at the end of the
+	 *         log
+	 */
+	public boolean next() {
+		if (index + 1 >= end) {
+			return false;
+		}
+		index++;
+		recordOffset = headerSize + (int) (index % capacity) * recordSize;
+		return true;
+	}
+
+	/**
+	 * @return timestamp of the current record in seconds
+	 */
+	public double getTimestamp() {
+		return buffer.getDouble(recordOffset);
+	}
+
+	/**
+	 * @param field
+	 *            index of the field
+	 * @return value of the field in the current record
+	 */
+	public double get(int field) {
+		return buffer.getDouble(recordOffset + 8 + 8 * field);
+	}
+
+	/**
+	 * @param field
+	 *            index of the field
+	 * @return {@code true} if the field in the current record is not
+	 *         {@code 0}, {@code false} otherwise
+	 */
+	public boolean getBoolean(int field) {
+		return get(field) != 0;
+	}
+
+	/**
+	 * @param name
+	 *            name of a field
+	 * @return index of the field, or {@code -1} if the log does not have it
+	 */
+	public int indexOf(String name) {
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return names of the fields in each record
+	 */
+	public String[] getFields() {
+		return fields.clone();
+	}
+
+	/**
+	 * @return number of records that can be read
+	 */
+	public long getRecordCount() {
+		return end - first;
+	}
+
+	/**
+	 * Writes every record as CSV, with a header row of field names. Leaves the
+	 * reader at the end of the log.
+	 * 
+	 * @param out
+	 *            where to write the CSV
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public void writeCsv(Writer out) throws IOException {
+		out.write("timestamp");
+		for (String field : fields) {
+			out.write(',');
+			out.write(field);
+		}
+		out.write('\n');
+
+		rewind();
+		while (next()) {
+			out.write(Double.toString(getTimestamp()));
+			for (int i = 0; i < fields.length; i++) {
+				out.write(',');
+				out.write(Double.toString(get(i)));
+			}
+			out.write('\n');
+		}
+	}
+
+	/**
+	 * Converts a telemetry log to CSV.
+	 * 
+	 * @param args
+	 *            log file path, and optionally the output path (defaults to
+	 *            standard output)
+	 * @throws IOException
+	 *             if reading or writing fails
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage: TelemetryReader <log> [csv]");
+			return;
+		}
+		TelemetryReader reader = new TelemetryReader(args[0]);
+		try (Writer out = args.length > 1
+				? Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)
+				: new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+			reader.writeCsv(out);
+		}
+	}
+}
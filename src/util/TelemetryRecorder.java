@@ -0,0 +1,176 @@
+package src.util;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Binary telemetry log backed by a memory-mapped file.
+ * <p>
+ * Each record is a timestamp followed by one {@code double} per field, written
+ * into a fixed ring of records in the file, so the log keeps the most recent
+ * records once it is full. Writing a record is a handful of stores into mapped
+ * memory: it allocates nothing and makes no system calls. Fields not set in a
+ * cycle are stored as {@code NaN}, never as a value from another cycle. Use
+ * {@link TelemetryReader} to read a log back or convert it to CSV.
+ * <p>
+ * File layout, little-endian:
+ * 
+ * <pre>
+ * int    magic ("HHTL")
+ * int    version
+ * int    field count
+ * int    capacity, in records
+ * long   records written
+ * int    header size, in bytes
+ * int    reserved
+ * field names, each a short byte length followed by UTF-8 bytes
+ * padding to a multiple of 8 bytes
+ * capacity * (1 + field count) doubles
+ * </pre>
+ * 
+ * @author Team 226
+ */
+public class TelemetryRecorder {
+
+	static final int MAGIC = 0x4848544C;
+	static final int VERSION = 1;
+	static final int COUNT_OFFSET = 16;
+	static final int FIXED_HEADER = 32;
+
+	private final MappedByteBuffer buffer;
+
+	private final int fieldCount;
+	private final int capacity;
+	private final int headerSize;
+	private final int recordSize;
+	private final double[] record;
+
+	private long count;
+	private int recordOffset;
+
+	/**
+	 * Construct a new TelemetryRecorder, replacing any existing file.
+	 * 
+	 * @param path
+	 *            path of the log file
+	 * @param fields
+	 *            names of the fields in each record
+	 * @param capacity
+	 *            number of records the file holds before wrapping around
+	 * @throws IOException
+	 *             if the file cannot be created or mapped
+	 */
+	public TelemetryRecorder(String path, String[] fields, int capacity) throws IOException {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		}
+		this.fieldCount = fields.length;
+		this.capacity = capacity;
+		this.recordSize = 8 * (1 + fieldCount);
+
+		byte[][] names = new byte[fieldCount][];
+		int size = FIXED_HEADER;
+		for (int i = 0; i < fieldCount; i++) {
+			names[i] = fields[i].getBytes(StandardCharsets.UTF_8);
+			size += 2 + names[i].length;
+		}
+		this.headerSize = (size + 7) & ~7;
+
+		long fileSize = headerSize + (long) recordSize * capacity;
+		if (fileSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Log would be larger than 2 GB");
+		}
+
+		try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+			file.setLength(0);
+			file.setLength(fileSize);
+			buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(fieldCount);
+		buffer.putInt(capacity);
+		buffer.putLong(0);
+		buffer.putInt(headerSize);
+		buffer.putInt(0);
+		for (byte[] name : names) {
+			buffer.putShort((short) name.length);
+			buffer.put(name);
+		}
+
+		recordOffset = headerSize;
+		record = new double[fieldCount];
+		Arrays.fill(record, Double.NaN);
+	}
+
+	/**
+	 * Sets a field of the record being written.
+	 * 
+	 * @param field
+	 *            index of the field
+	 * @param value
+	 *            value of the field
+	 */
+	public void set(int field, double value) {
+		record[field] = value;
+	}
+
+	/**
+	 * Sets a field of the record being written to {@code 1} or {@code 0}.
+	 * 
+	 * @param field
+	 *            index of the field
+	 * @param value
+	 *            value of the field
+	 */
+	public void set(int field, boolean value) {
+		set(field, value ? 1 : 0);
+	}
+
+	/**
+	 * Writes the record being built into the log and starts the next one, with
+	 * every field cleared to {@code NaN}. The record is built outside the ring,
+	 * so once the log has wrapped, neither the oldest record nor its values
+	 * leak into the new one.
+	 * 
+	 * @param timestamp
+	 *            time of the record in seconds
+	 */
+	public void commit(double timestamp) {
+		buffer.putDouble(recordOffset, timestamp);
+		for (int field = 0; field < fieldCount; field++) {
+			buffer.putDouble(recordOffset + 8 + 8 * field, record[field]);
+		}
+		Arrays.fill(record, Double.NaN);
+
+		count++;
+		buffer.putLong(COUNT_OFFSET, count);
+
+		recordOffset += recordSize;
+		if (recordOffset >= headerSize + recordSize * capacity) {
+			recordOffset = headerSize;
+		}
+	}
+
+	/**
+	 * @return number of records committed
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Flushes the log to disk. Not needed for another process to see the
+	 * records, only to survive a power loss.
+	 */
+	public void flush() {
+		buffer.force();
+	}
+}
@@ -0,0 +1,93 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import src.util.SimulatedClock;
+import src.util.TelemetryReader;
+import src.util.TelemetryRecorder;
+
+class CheesyDriveTunerTest {
+
+	private static final int CYCLES = 1000;
+
+	/**
+	 * Logs random stick input and the outputs of a drive with the default
+	 * gains, optionally squared and rate limited like on the robot.
+	 */
+	private static String recordLog(Path dir, String name, boolean robotStages, boolean recordOutputs)
+			throws IOException {
+		String path = dir.resolve(name).toString();
+		TelemetryRecorder log = new TelemetryRecorder(path, DriveTelemetry.fields(0), CYCLES);
+		SimulatedClock clock = new SimulatedClock();
+		RobotDrive rd = new RobotDrive(new RecordingMotorSink(1), new RecordingMotorSink(1));
+		if (robotStages) {
+			rd.enableRateLimiting(3, 6, clock);
+		}
+		Random random = new Random(226);
+
+		for (int i = 0; i < CYCLES; i++) {
+			double throttle = random.nextDouble() * 2 - 1;
+			double turn = random.nextDouble() * 2 - 1;
+			boolean quickTurn = random.nextInt(4) == 0;
+
+			CheesyDrive.cheesyDrive(rd, throttle, turn, quickTurn, robotStages);
+			DriveTelemetry.recordInputs(log, throttle, turn, quickTurn, 0, 0);
+			if (recordOutputs) {
+				DriveTelemetry.recordOutputs(log, rd);
+			}
+			log.commit(i * 0.02);
+			clock.advance(20_000_000);
+		}
+		log.flush();
+		return path;
+	}
+
+	@Test
+	void logTargetsComeFromInputsNotRecordedOutputs(@TempDir Path dir) throws IOException {
+		CheesyDriveTuner shaped = CheesyDriveTuner
+				.fromLog(new TelemetryReader(recordLog(dir, "shaped.bin", true, true)));
+		CheesyDriveTuner blank = CheesyDriveTuner
+				.fromLog(new TelemetryReader(recordLog(dir, "blank.bin", false, false)));
+
+		CheesyDrive[] drives = { new CheesyDrive(), new CheesyDrive(0.2, 0.8, 0.4), new CheesyDrive(0.9, 2.0, 0.7) };
+		for (CheesyDrive drive : drives) {
+			for (boolean alternate : new boolean[] { false, true }) {
+				CheesyDriveTuner.Result a = shaped.evaluate(drive, alternate, 1);
+				CheesyDriveTuner.Result b = blank.evaluate(drive, alternate, 1);
+				assertEquals(b.score, a.score, 0, drive + " alternate " + alternate);
+			}
+		}
+	}
+
+	@Test
+	void recordingGainsAreNotScoredPerfectly(@TempDir Path dir) throws IOException {
+		CheesyDriveTuner tuner = CheesyDriveTuner
+				.fromLog(new TelemetryReader(recordLog(dir, "plain.bin", false, true)));
+
+		CheesyDriveTuner.Result recorded = tuner.evaluate(new CheesyDrive(), false, 0);
+		assertTrue(recorded.trackingError > 0.01, "tracking error " + recorded.trackingError);
+	}
+
+	@Test
+	void tuningRanksBestFirst() {
+		CheesyDriveTuner tuner = CheesyDriveTuner.synthetic(CYCLES, 254);
+		double[] gains = { 0.25, 0.5, 1, 1.5 };
+
+		CheesyDriveTuner.Result[] results = tuner.tune(gains, gains, new double[] { 0.5 }, false, 0.5);
+
+		assertEquals(gains.length * gains.length, results.length);
+		for (int i = 1; i < results.length; i++) {
+			assertTrue(results[i - 1].score <= results[i].score);
+		}
+		CheesyDrive best = new CheesyDrive(results[0].skimGain, results[0].turnGain, results[0].throttleThreshold);
+		assertEquals(results[0].score, tuner.evaluate(best, false, 0.5).score, 0);
+	}
+}
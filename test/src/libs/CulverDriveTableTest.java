@@ -0,0 +1,75 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CulverDriveTableTest {
+
+	/**
+	 * Largest deviation allowed at a resolution of 256, from the class doc
+	 */
+	private static final double BOUND_256 = 0.025;
+
+	@Test
+	void curvesStayWithinBoundOfExactFunctions() {
+		CulverDriveTable table = new CulverDriveTable(256);
+		Random random = new Random(226);
+
+		double max = 0;
+		for (int i = 0; i < 200_000; i++) {
+			double x = random.nextDouble() * 2 - 1;
+			double y = random.nextDouble() * 2 - 1;
+
+			max = Math.max(max, Math.abs(table.getRadius(x, y) - CulverDrive.culverDriveCalculateRadius(1, x, y)));
+			max = Math.max(max, Math.abs(table.getRaw(x, y) - CulverDrive.culverDriveCalculateRaw(x, y)));
+			max = Math.max(max, Math.abs(table.getAltRaw(x, y) - CulverDrive.culverDriveCalculateAltRaw(x, y)));
+		}
+
+		assertTrue(max <= BOUND_256, "max deviation " + max);
+	}
+
+	@Test
+	void driveOutputsStayWithinBoundOfExactPath() {
+		CulverDriveTable table = new CulverDriveTable(256);
+		RecordingMotorSink exactLeft = new RecordingMotorSink(1);
+		RecordingMotorSink exactRight = new RecordingMotorSink(1);
+		RecordingMotorSink tableLeft = new RecordingMotorSink(1);
+		RecordingMotorSink tableRight = new RecordingMotorSink(1);
+		RobotDrive exact = new RobotDrive(exactLeft, exactRight);
+		RobotDrive tabled = new RobotDrive(tableLeft, tableRight);
+		Random random = new Random(254);
+
+		double max = 0;
+		for (int i = 0; i < 100_000; i++) {
+			double throttle = random.nextDouble() * 2 - 1;
+			double x = random.nextDouble() * 2 - 1;
+			double y = random.nextDouble() * 2 - 1;
+			boolean quickTurn = random.nextBoolean();
+
+			CulverDrive.culverDrive(exact, throttle, x, y, quickTurn, false);
+			CulverDrive.culverDrive(tabled, table, throttle, x, y, quickTurn, false);
+			max = Math.max(max, Math.abs(exactLeft.getLast() - tableLeft.getLast()));
+			max = Math.max(max, Math.abs(exactRight.getLast() - tableRight.getLast()));
+
+			CulverDrive.culverDriveAlt(exact, throttle, x, y, false);
+			CulverDrive.culverDriveAlt(tabled, table, throttle, x, y, false);
+			max = Math.max(max, Math.abs(exactLeft.getLast() - tableLeft.getLast()));
+			max = Math.max(max, Math.abs(exactRight.getLast() - tableRight.getLast()));
+		}
+
+		// radius and raw/alternate raw errors add in the outputs
+		assertTrue(max <= 2 * BOUND_256, "max deviation " + max);
+	}
+
+	@Test
+	void deviationShrinksWithResolution() {
+		double coarse = new CulverDriveTable(64).getMaxDeviation(501);
+		double fine = new CulverDriveTable(256).getMaxDeviation(501);
+
+		assertTrue(fine < coarse / 2, coarse + " -> " + fine);
+		assertTrue(fine <= BOUND_256, "max deviation " + fine);
+	}
+}
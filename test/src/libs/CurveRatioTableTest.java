@@ -0,0 +1,92 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CurveRatioTableTest {
+
+	private static final double[] SENSITIVITIES = { 0.05, 0.5, 1, 2, 5 };
+	private static final int[] SIZES = { 16, 256, 1024 };
+
+	@Test
+	void errorStaysWithinReportedBound() {
+		Random random = new Random(226);
+
+		for (double sensitivity : SENSITIVITIES) {
+			for (int size : SIZES) {
+				CurveRatioTable table = new CurveRatioTable(sensitivity, size);
+				double bound = table.getMaxError();
+				double minCurve = 1.0 / size;
+
+				double max = 0;
+				for (int i = 0; i <= 1_000_000; i++) {
+					double curve = minCurve + (1 - minCurve) * i / 1_000_000;
+					max = Math.max(max, error(table, curve));
+				}
+				for (int i = 0; i < 200_000; i++) {
+					double curve = minCurve + (1 - minCurve) * random.nextDouble();
+					max = Math.max(max, error(table, curve));
+				}
+
+				assertTrue(max <= bound, "sensitivity " + sensitivity + ", size " + size + ": error " + max
+						+ " above reported " + bound);
+			}
+		}
+	}
+
+	private static double error(CurveRatioTable table, double curve) {
+		assertTrue(table.covers(curve), "covers " + curve);
+		return Math.abs(table.getInverseRatio(curve) - 1 / RobotDrive.curveRatio(curve, table.getSensitivity()));
+	}
+
+	@Test
+	void driveOutputsStayWithinReportedBound() {
+		RecordingMotorSink exactLeft = new RecordingMotorSink(1);
+		RecordingMotorSink exactRight = new RecordingMotorSink(1);
+		RecordingMotorSink tableLeft = new RecordingMotorSink(1);
+		RecordingMotorSink tableRight = new RecordingMotorSink(1);
+		RobotDrive exact = new RobotDrive(exactLeft, exactRight);
+		RobotDrive tabled = new RobotDrive(tableLeft, tableRight);
+		tabled.enableCurveTable(1024);
+		double bound = tabled.getCurveTable().getMaxError();
+		Random random = new Random(254);
+
+		for (int i = 0; i < 200_000; i++) {
+			double magnitude = random.nextDouble() * 2 - 1;
+			double curve = random.nextDouble() * 2 - 1;
+
+			exact.drive(magnitude, curve);
+			tabled.drive(magnitude, curve);
+
+			double allowed = bound * Math.abs(magnitude);
+			assertTrue(Math.abs(exactLeft.getLast() - tableLeft.getLast()) <= allowed, "left at curve " + curve);
+			assertTrue(Math.abs(exactRight.getLast() - tableRight.getLast()) <= allowed, "right at curve " + curve);
+		}
+	}
+
+	@Test
+	void boundShrinksWithSize() {
+		for (double sensitivity : SENSITIVITIES) {
+			double coarse = new CurveRatioTable(sensitivity, 256).getMaxError();
+			double fine = new CurveRatioTable(sensitivity, 1024).getMaxError();
+			assertTrue(fine < coarse, "sensitivity " + sensitivity + ": " + fine + " vs " + coarse);
+		}
+	}
+
+	@Test
+	void leavesSteepAndOutOfRangeCurvesToExactPath() {
+		CurveRatioTable table = new CurveRatioTable(0.5, 256);
+		assertFalse(table.covers(0));
+		assertFalse(table.covers(0.5 / 256));
+		assertFalse(table.covers(1.5));
+		assertFalse(table.covers(-1.5));
+		assertTrue(table.covers(-1));
+
+		assertFalse(new CurveRatioTable(0, 256).covers(0.5));
+		assertFalse(new CurveRatioTable(-1, 256).covers(0.5));
+	}
+}
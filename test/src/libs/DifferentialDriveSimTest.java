@@ -0,0 +1,135 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Scenarios for the default {@link DifferentialDriveSim} robot: 54 kg, two
+ * CIMs per side, 10.71:1 to 6 inch wheels, 12.6 V battery.
+ */
+class DifferentialDriveSimTest {
+
+	private static final double DT = 0.005;
+	private static final double FRICTION = 1.1;
+	private static final double BATTERY_VOLTS = 12.6;
+	private static final double BATTERY_RESISTANCE = 0.018;
+
+	/**
+	 * Wheel surface speed with no load, where the motors draw no current and the
+	 * full battery voltage goes to back EMF
+	 */
+	private static double freeSurfaceSpeed(double command) {
+		double resistance = 12 / 133.0;
+		double kV = (12 - 2.7 * resistance) / (5310 * 2 * Math.PI / 60);
+		return command * BATTERY_VOLTS / kV / 10.71 * 0.0762;
+	}
+
+	private static void run(DifferentialDriveSim sim, double seconds) {
+		for (int i = 0; i < Math.round(seconds / DT); i++) {
+			sim.step(DT);
+		}
+	}
+
+	@Test
+	void straightLineReachesTerminalVelocity() {
+		for (double command : new double[] { 1, 0.5, -0.5 }) {
+			DifferentialDriveSim sim = new DifferentialDriveSim();
+			sim.getLeftSink().set(command);
+			sim.getRightSink().set(command);
+			run(sim, 10);
+
+			double expected = freeSurfaceSpeed(command);
+			assertEquals(expected, sim.getVelocity(), Math.abs(expected) * 0.01, "command " + command);
+			assertEquals(sim.getVelocity(), sim.getLeftWheelSpeed(), 0.01);
+			assertEquals(sim.getVelocity(), sim.getRightWheelSpeed(), 0.01);
+			assertEquals(0, sim.getHeading(), 1e-9);
+			assertEquals(0, sim.getY(), 1e-9);
+			assertEquals(Math.signum(command), Math.signum(sim.getX()));
+		}
+	}
+
+	@Test
+	void commandsPastFullOutputAreLimited() {
+		DifferentialDriveSim full = new DifferentialDriveSim();
+		DifferentialDriveSim over = new DifferentialDriveSim();
+		full.getLeftSink().set(1);
+		full.getRightSink().set(1);
+		over.getLeftSink().set(3);
+		over.getRightSink().set(3);
+		run(full, 2);
+		run(over, 2);
+
+		assertEquals(full.getVelocity(), over.getVelocity(), 1e-12);
+	}
+
+	@Test
+	void opposedSidesSpinInPlace() {
+		DifferentialDriveSim sim = new DifferentialDriveSim();
+		sim.getLeftSink().set(-0.5);
+		sim.getRightSink().set(0.5);
+		run(sim, 10);
+
+		double wheelSpeed = freeSurfaceSpeed(0.5);
+		assertEquals(wheelSpeed / 0.3, sim.getAngularVelocity(), wheelSpeed / 0.3 * 0.01);
+		assertEquals(-wheelSpeed, sim.getLeftWheelSpeed(), wheelSpeed * 0.01);
+		assertEquals(wheelSpeed, sim.getRightWheelSpeed(), wheelSpeed * 0.01);
+		assertEquals(0, sim.getVelocity(), 1e-9);
+		assertEquals(0, Math.hypot(sim.getX(), sim.getY()), 1e-9);
+		assertTrue(sim.getHeading() > 0);
+	}
+
+	@Test
+	void stepInputSlipsWheelsUntilTractionCatchesUp() {
+		DifferentialDriveSim sim = new DifferentialDriveSim();
+		sim.getLeftSink().set(1);
+		sim.getRightSink().set(1);
+		run(sim, 0.05);
+
+		// Traction saturates, so the wheels spin faster than the robot moves and
+		// the robot accelerates at no more than the friction limit
+		double maxAcceleration = FRICTION * 9.81;
+		assertTrue(sim.getLeftWheelSpeed() - sim.getVelocity() > 0.1, "slip " + (sim.getLeftWheelSpeed() - sim.getVelocity()));
+		assertTrue(sim.getVelocity() <= maxAcceleration * 0.05, "velocity " + sim.getVelocity());
+		assertTrue(sim.getVelocity() > 0.8 * maxAcceleration * 0.05, "velocity " + sim.getVelocity());
+
+		run(sim, 10);
+		assertEquals(0, sim.getLeftWheelSpeed() - sim.getVelocity(), 0.01);
+	}
+
+	@Test
+	void batterySagsUnderStallAndRecoversAtSpeed() {
+		DifferentialDriveSim sim = new DifferentialDriveSim();
+		assertEquals(BATTERY_VOLTS, sim.getBatteryVoltage());
+
+		sim.getLeftSink().set(1);
+		sim.getRightSink().set(1);
+		sim.step(DT);
+
+		// Near stall, four motors draw hundreds of amps through the battery
+		assertTrue(sim.getCurrent() > 200, "current " + sim.getCurrent());
+		assertTrue(sim.getBatteryVoltage() < 9, "voltage " + sim.getBatteryVoltage());
+		assertEquals(BATTERY_VOLTS - BATTERY_RESISTANCE * sim.getCurrent(), sim.getBatteryVoltage(), 1e-9);
+
+		run(sim, 10);
+		assertTrue(sim.getCurrent() < 5, "current " + sim.getCurrent());
+		assertEquals(BATTERY_VOLTS, sim.getBatteryVoltage(), 0.1);
+	}
+
+	@Test
+	void resetReturnsToRestWithAFreshBattery() {
+		DifferentialDriveSim sim = new DifferentialDriveSim();
+		sim.getLeftSink().set(1);
+		sim.getRightSink().set(0.2);
+		run(sim, 1);
+
+		sim.reset();
+		run(sim, 1);
+
+		assertEquals(0, sim.getX());
+		assertEquals(0, sim.getHeading());
+		assertEquals(0, sim.getVelocity());
+		assertEquals(BATTERY_VOLTS, sim.getBatteryVoltage());
+	}
+}
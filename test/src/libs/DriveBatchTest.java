@@ -0,0 +1,99 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks every batch method against the per-sample path it replaces, sample
+ * by sample, over random input mixed with the edge values a stick can hit.
+ */
+class DriveBatchTest {
+
+	private static final int SAMPLES = 50_000;
+
+	private static final double[] EDGES = { -1, -0.5, -0.0, 0, 0.5, 1 };
+
+	private final double[] throttle = new double[SAMPLES];
+	private final double[] turn = new double[SAMPLES];
+	private final double[] x = new double[SAMPLES];
+	private final double[] y = new double[SAMPLES];
+	private final boolean[] quickTurn = new boolean[SAMPLES];
+	private final double[] left = new double[SAMPLES];
+	private final double[] right = new double[SAMPLES];
+
+	private final RobotDrive rd = new RobotDrive(new RecordingMotorSink(1), new RecordingMotorSink(1));
+
+	DriveBatchTest() {
+		Random random = new Random(226);
+		for (int i = 0; i < SAMPLES; i++) {
+			throttle[i] = sample(random);
+			turn[i] = sample(random);
+			x[i] = sample(random);
+			y[i] = sample(random);
+			quickTurn[i] = random.nextBoolean();
+		}
+	}
+
+	private static double sample(Random random) {
+		return random.nextInt(8) == 0 ? EDGES[random.nextInt(EDGES.length)] : random.nextDouble() * 2 - 1;
+	}
+
+	@Test
+	void cheesyBatchMatchesPerSample() {
+		CheesyDrive[] drives = { new CheesyDrive(), new CheesyDrive(0.3, 0.8, 0.2), new CheesyDrive(1, 2, 0.9) };
+		double[] out = new double[2];
+
+		for (CheesyDrive drive : drives) {
+			drive.calculateBatch(throttle, turn, quickTurn, left, right, SAMPLES);
+			for (int i = 0; i < SAMPLES; i++) {
+				drive.calculate(throttle[i], turn[i], quickTurn[i], out);
+				assertEquals(out[0], left[i], 0, "left at " + i);
+				assertEquals(out[1], right[i], 0, "right at " + i);
+			}
+
+			drive.calculateAltBatch(throttle, turn, left, right, SAMPLES);
+			for (int i = 0; i < SAMPLES; i++) {
+				drive.calculateAlt(throttle[i], turn[i], out);
+				assertEquals(out[0], left[i], 0, "alt left at " + i);
+				assertEquals(out[1], right[i], 0, "alt right at " + i);
+			}
+		}
+	}
+
+	@Test
+	void culverBatchMatchesPerSample() {
+		CulverDriveTable table = new CulverDriveTable(128);
+
+		CulverDrive.culverDriveBatch(table, throttle, x, y, quickTurn, left, right, SAMPLES);
+		for (int i = 0; i < SAMPLES; i++) {
+			CulverDrive.culverDrive(rd, table, throttle[i], x[i], y[i], quickTurn[i], false);
+			assertEquals(rd.getLeftOutput(), left[i], 0, "left at " + i);
+			assertEquals(rd.getRightOutput(), right[i], 0, "right at " + i);
+		}
+
+		CulverDrive.culverDriveAltBatch(table, throttle, x, y, left, right, SAMPLES);
+		for (int i = 0; i < SAMPLES; i++) {
+			CulverDrive.culverDriveAlt(rd, table, throttle[i], x[i], y[i], false);
+			assertEquals(rd.getLeftOutput(), left[i], 0, "alt left at " + i);
+			assertEquals(rd.getRightOutput(), right[i], 0, "alt right at " + i);
+		}
+	}
+
+	@Test
+	void batchOnlyWritesFirstSamples() {
+		int n = 10;
+		Arrays.fill(left, Double.NaN);
+		Arrays.fill(right, Double.NaN);
+
+		new CheesyDrive().calculateBatch(throttle, turn, quickTurn, left, right, n);
+
+		for (int i = n; i < SAMPLES; i++) {
+			assertEquals(Double.NaN, left[i]);
+			assertEquals(Double.NaN, right[i]);
+		}
+	}
+}
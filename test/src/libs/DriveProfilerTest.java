@@ -0,0 +1,70 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DriveProfilerTest {
+
+	/**
+	 * How long each simulated motor write takes
+	 */
+	private static final long WRITE_NANOS = 2_000_000;
+
+	private static final int CALLS = 20;
+
+	/**
+	 * A motor that takes {@link #WRITE_NANOS} to accept each write, like a slow
+	 * CAN bus
+	 */
+	private static final MotorSink SLOW_MOTOR = output -> {
+		long end = System.nanoTime() + WRITE_NANOS;
+		while (System.nanoTime() - end < 0) {
+			Thread.onSpinWait();
+		}
+	};
+
+	@BeforeEach
+	void enable() {
+		DriveProfiler.reset();
+		DriveProfiler.setEnabled(true);
+	}
+
+	@AfterEach
+	void disable() {
+		DriveProfiler.setEnabled(false);
+		DriveProfiler.reset();
+	}
+
+	@Test
+	void driveStagesExcludeMotorWrites() {
+		RobotDrive rd = new RobotDrive(SLOW_MOTOR, SLOW_MOTOR);
+		CheesyDrive cheesy = new CheesyDrive();
+		CulverDriveTable table = new CulverDriveTable(64);
+
+		for (int i = 0; i < CALLS; i++) {
+			double throttle = i / (double) CALLS;
+			cheesy.drive(rd, throttle, 0.3, false, false);
+			cheesy.driveAlt(rd, throttle, 0.3, false);
+			CulverDrive.culverDrive(rd, throttle, 0.3, 0.4, false, false);
+			CulverDrive.culverDrive(rd, table, throttle, 0.3, 0.4, false, false);
+			CulverDrive.culverDriveAlt(rd, throttle, 0.3, 0.4, false);
+			CulverDrive.culverDriveAlt(rd, table, throttle, 0.3, 0.4, false);
+		}
+
+		DriveProfiler.Stage[] stages = { DriveProfiler.Stage.CHEESY_DRIVE, DriveProfiler.Stage.CHEESY_DRIVE_ALT,
+				DriveProfiler.Stage.CULVER_DRIVE, DriveProfiler.Stage.CULVER_DRIVE_ALT };
+		for (DriveProfiler.Stage stage : stages) {
+			LatencyHistogram histogram = stage.getHistogram();
+			assertTrue(histogram.getCount() > 0, stage + " recorded nothing");
+			assertTrue(histogram.getP50() < WRITE_NANOS, stage + " median " + histogram.getP50() + " ns");
+		}
+
+		LatencyHistogram writes = DriveProfiler.Stage.TANK_WRITE.getHistogram();
+		assertEquals(6 * CALLS, writes.getCount());
+		assertTrue(writes.getP50() >= 2 * WRITE_NANOS * 9 / 10, "write median " + writes.getP50() + " ns");
+	}
+}
@@ -0,0 +1,111 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import src.util.Clock;
+import src.util.SimulatedClock;
+import src.util.TelemetryReader;
+import src.util.TelemetryRecorder;
+
+class DriveReplayTest {
+
+	private static final int CYCLES = 2000;
+	private static final long CYCLE_NANOS = 20_000_000;
+
+	/**
+	 * Timestamp of the first record, like an FPGA time some way into a match
+	 */
+	private static final double FIRST_TIMESTAMP = 100;
+
+	private static CheesyDrive robotGains() {
+		return new CheesyDrive(0.5, 1.0, 0.3);
+	}
+
+	private static RobotDrive robotDrive(Clock clock) {
+		RobotDrive rd = new RobotDrive(new RecordingMotorSink(1), new RecordingMotorSink(1));
+		rd.enableOutputDeduplication(0.01, 0.1);
+		rd.enableRateLimiting(2, 4, clock);
+		return rd;
+	}
+
+	/**
+	 * Drives a configured robot with random stick input and logs every cycle.
+	 */
+	private static String recordLog(Path dir) throws IOException {
+		String path = dir.resolve("drive.bin").toString();
+		TelemetryRecorder log = new TelemetryRecorder(path, DriveTelemetry.fields(0), CYCLES);
+		SimulatedClock clock = new SimulatedClock();
+		RobotDrive rd = robotDrive(clock);
+		CheesyDrive cheesy = robotGains();
+		Random random = new Random(226);
+
+		double throttle = 0;
+		double turn = 0;
+		for (int i = 0; i < CYCLES; i++) {
+			throttle = Math.max(-1, Math.min(1, throttle + random.nextGaussian() * 0.1));
+			turn = Math.max(-1, Math.min(1, turn + random.nextGaussian() * 0.1));
+			boolean quickTurn = random.nextInt(10) == 0;
+
+			cheesy.drive(rd, throttle, turn, quickTurn, true);
+			DriveTelemetry.recordInputs(log, throttle, turn, quickTurn, 0, 0);
+			DriveTelemetry.recordOutputs(log, rd);
+			log.commit(FIRST_TIMESTAMP + i * (CYCLE_NANOS * 1e-9));
+
+			clock.advance(CYCLE_NANOS);
+		}
+		log.flush();
+		return path;
+	}
+
+	@Test
+	void replayWithRobotConfigurationMatchesLog(@TempDir Path dir) throws IOException {
+		String path = recordLog(dir);
+		RobotDrive rd = robotDrive(Clock.SYSTEM);
+		DriveReplay replay = new DriveReplay(robotGains(), rd);
+
+		replay.replay(new TelemetryReader(path), DriveReplay.Mode.CHEESY_DRIVE, true, 1e-9);
+
+		assertEquals(CYCLES, replay.getCycles());
+		assertEquals(0, replay.getDifferingCycles(), "max difference " + replay.getMaxDifference());
+		assertSame(Clock.SYSTEM, rd.getClock());
+	}
+
+	@Test
+	void replayRestoresClockWhenDriveThrows(@TempDir Path dir) throws IOException {
+		String path = recordLog(dir);
+		int[] writes = { 0 };
+		MotorSink failing = output -> {
+			if (++writes[0] > 10) {
+				throw new IllegalStateException("motor controller lost");
+			}
+		};
+		RobotDrive rd = new RobotDrive(failing, new RecordingMotorSink(1));
+		DriveReplay replay = new DriveReplay(robotGains(), rd);
+
+		assertThrows(IllegalStateException.class,
+				() -> replay.replay(new TelemetryReader(path), DriveReplay.Mode.CHEESY_DRIVE, true, 1e-9));
+
+		assertSame(Clock.SYSTEM, rd.getClock());
+	}
+
+	@Test
+	void replayWithDefaultConfigurationDiffers(@TempDir Path dir) throws IOException {
+		String path = recordLog(dir);
+		DriveReplay replay = new DriveReplay();
+
+		replay.replay(new TelemetryReader(path), DriveReplay.Mode.CHEESY_DRIVE, true, 1e-9);
+
+		assertEquals(CYCLES, replay.getCycles());
+		assertTrue(replay.getDifferingCycles() > CYCLES / 2, "differing " + replay.getDifferingCycles());
+	}
+}
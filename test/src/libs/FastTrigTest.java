@@ -0,0 +1,206 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests of {@link FastTrig} and the fast math options that use
+ * it, against {@link Math}.
+ */
+class FastTrigTest {
+
+	private static final double[] SPECIAL = { 0.0, -0.0, Double.MIN_VALUE, -Double.MIN_VALUE, 1e-300, -1e-300, 1, -1,
+			Double.MAX_VALUE, -Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN };
+
+	/**
+	 * Largest difference in Culver Drive outputs with the fast kernel, from the
+	 * 1.2e-6 degree angle error through the steering curves
+	 */
+	private static final double CULVER_OUTPUT_TOLERANCE = 1e-6;
+
+	@Test
+	void atan2StaysWithinBoundOverAllMagnitudes() {
+		Random random = new Random(226);
+
+		double max = 0;
+		double maxDegrees = 0;
+		for (int i = 0; i < 2_000_000; i++) {
+			double y = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+			double x = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+
+			max = Math.max(max, Math.abs(FastTrig.atan2(y, x) - Math.atan2(y, x)));
+			maxDegrees = Math.max(maxDegrees,
+					Math.abs(FastTrig.atan2Degrees(y, x) - Math.toDegrees(Math.atan2(y, x))));
+		}
+
+		assertTrue(max <= FastTrig.MAX_ATAN2_ERROR, "max error " + max);
+		assertTrue(maxDegrees <= FastTrig.MAX_ATAN2_DEGREES_ERROR, "max degrees error " + maxDegrees);
+	}
+
+	@Test
+	void atan2StaysWithinBoundAroundTheCircle() {
+		double max = 0;
+		for (int i = 0; i <= 1_000_000; i++) {
+			double angle = -Math.PI + 2 * Math.PI * i / 1_000_000;
+			double y = Math.sin(angle);
+			double x = Math.cos(angle);
+			max = Math.max(max, Math.abs(FastTrig.atan2(y, x) - Math.atan2(y, x)));
+		}
+
+		assertTrue(max <= FastTrig.MAX_ATAN2_ERROR, "max error " + max);
+	}
+
+	@Test
+	void atan2MatchesSpecialCases() {
+		for (double y : SPECIAL) {
+			for (double x : SPECIAL) {
+				double exact = Math.atan2(y, x);
+				double fast = FastTrig.atan2(y, x);
+				if (Double.isNaN(exact)) {
+					assertTrue(Double.isNaN(fast), "atan2(" + y + ", " + x + ") = " + fast);
+				} else if (exact == 0) {
+					// Signed zeros must come back exactly, so they keep their sign
+					assertEquals(exact, fast, "atan2(" + y + ", " + x + ")");
+				} else {
+					assertEquals(exact, fast, FastTrig.MAX_ATAN2_ERROR, "atan2(" + y + ", " + x + ")");
+				}
+			}
+		}
+	}
+
+	@Test
+	void sinCosStayWithinBound() {
+		Random random = new Random(254);
+
+		double max = 0;
+		for (int i = 0; i < 2_000_000; i++) {
+			double radians = (random.nextDouble() * 2 - 1) * 4 * Math.PI;
+			max = Math.max(max, Math.abs(FastTrig.sin(radians) - Math.sin(radians)));
+			max = Math.max(max, Math.abs(FastTrig.cos(radians) - Math.cos(radians)));
+
+			double degrees = (random.nextDouble() * 2 - 1) * 720;
+			max = Math.max(max, Math.abs(FastTrig.sinDegrees(degrees) - Math.sin(Math.toRadians(degrees))));
+			max = Math.max(max, Math.abs(FastTrig.cosDegrees(degrees) - Math.cos(Math.toRadians(degrees))));
+		}
+
+		assertTrue(max <= FastTrig.MAX_SIN_COS_ERROR, "max error " + max);
+	}
+
+	@Test
+	void sinCosStayWithinBoundForAMillionTurns() {
+		Random random = new Random(1678);
+
+		double max = 0;
+		for (int i = 0; i < 500_000; i++) {
+			double radians = (random.nextDouble() * 2 - 1) * 2e6 * Math.PI;
+			max = Math.max(max, Math.abs(FastTrig.sin(radians) - Math.sin(radians)));
+			max = Math.max(max, Math.abs(FastTrig.cos(radians) - Math.cos(radians)));
+
+			// A gyro that has spun for a long time
+			double degrees = (random.nextDouble() * 2 - 1) * 360e6;
+			max = Math.max(max, Math.abs(FastTrig.sinDegrees(degrees) - Math.sin(Math.toRadians(degrees))));
+			max = Math.max(max, Math.abs(FastTrig.cosDegrees(degrees) - Math.cos(Math.toRadians(degrees))));
+		}
+
+		assertTrue(max <= FastTrig.MAX_SIN_COS_ERROR, "max error " + max);
+	}
+
+	@Test
+	void sinCosHitExactValuesAtQuarterTurns() {
+		for (int k = -8; k <= 8; k++) {
+			double degrees = 90.0 * k;
+			assertEquals(Math.sin(Math.toRadians(degrees)), FastTrig.sinDegrees(degrees), 1e-15, "sin " + degrees);
+			assertEquals(Math.cos(Math.toRadians(degrees)), FastTrig.cosDegrees(degrees), 1e-15, "cos " + degrees);
+		}
+		assertEquals(0, FastTrig.sin(-0.0), 0);
+		assertEquals(1, FastTrig.cos(-0.0), 0);
+	}
+
+	@Test
+	void fastSwerveStaysWithinDocumentedBounds() {
+		SwerveDrive exact = new SwerveDrive(0.6, 0.5);
+		SwerveDrive fast = new SwerveDrive(0.6, 0.5);
+		fast.setFastMath(true);
+		Pair[] layout = { new Pair(-0.3, 0.35), new Pair(0.3, 0.35), new Pair(-0.3, -0.35), new Pair(0.3, -0.35),
+				new Pair(0, 0.5) };
+		SwerveDrive exactN = new SwerveDrive(layout);
+		SwerveDrive fastN = new SwerveDrive(layout);
+		fastN.setFastMath(true);
+
+		double[] exactSpeeds = new double[4];
+		double[] exactAngles = new double[4];
+		double[] fastSpeeds = new double[4];
+		double[] fastAngles = new double[4];
+		Random random = new Random(971);
+
+		for (int i = 0; i < 200_000; i++) {
+			double strafe = random.nextDouble() * 2 - 1;
+			double forward = random.nextDouble() * 2 - 1;
+			double rotation = random.nextDouble() * 2 - 1;
+			double gyro = (random.nextDouble() * 2 - 1) * 3600;
+
+			exact.calc4WheelVectors(strafe, forward, rotation, gyro, exactSpeeds, exactAngles);
+			fast.calc4WheelVectors(strafe, forward, rotation, gyro, fastSpeeds, fastAngles);
+			for (int m = 0; m < 4; m++) {
+				assertEquals(exactSpeeds[m], fastSpeeds[m], 3e-7, "4 wheel speed");
+				assertAngleWithinBound(exactAngles[m], fastAngles[m], exactSpeeds[m]);
+			}
+
+			Vector[] exactVectors = exactN.calcWheelVectorsN(strafe, forward, rotation, gyro);
+			Vector[] fastVectors = fastN.calcWheelVectorsN(strafe, forward, rotation, gyro);
+			for (int m = 0; m < layout.length; m++) {
+				assertEquals(exactVectors[m].magnitude, fastVectors[m].magnitude, 3e-7, "N wheel speed");
+				assertAngleWithinBound(exactVectors[m].angle, fastVectors[m].angle, exactVectors[m].magnitude);
+			}
+		}
+	}
+
+	private static void assertAngleWithinBound(double exact, double fast, double speed) {
+		double difference = Math.abs(exact - fast) % 360;
+		difference = Math.min(difference, 360 - difference);
+		assertTrue(difference <= 1e-5 / speed, "angle " + exact + " vs " + fast + " at speed " + speed);
+	}
+
+	@Test
+	void fastCulverDriveStaysWithinBound() {
+		RecordingMotorSink exactLeft = new RecordingMotorSink(1);
+		RecordingMotorSink exactRight = new RecordingMotorSink(1);
+		RecordingMotorSink fastLeft = new RecordingMotorSink(1);
+		RecordingMotorSink fastRight = new RecordingMotorSink(1);
+		RobotDrive exact = new RobotDrive(exactLeft, exactRight);
+		RobotDrive fast = new RobotDrive(fastLeft, fastRight);
+		Random random = new Random(1114);
+
+		double max = 0;
+		try {
+			for (int i = 0; i < 200_000; i++) {
+				double throttle = random.nextDouble() * 2 - 1;
+				double x = random.nextDouble() * 2 - 1;
+				double y = random.nextDouble() * 2 - 1;
+				boolean quickTurn = random.nextBoolean();
+
+				CulverDrive.setFastMath(false);
+				CulverDrive.culverDrive(exact, throttle, x, y, quickTurn, false);
+				CulverDrive.setFastMath(true);
+				CulverDrive.culverDrive(fast, throttle, x, y, quickTurn, false);
+				max = Math.max(max, Math.abs(exactLeft.getLast() - fastLeft.getLast()));
+				max = Math.max(max, Math.abs(exactRight.getLast() - fastRight.getLast()));
+
+				CulverDrive.setFastMath(false);
+				CulverDrive.culverDriveAlt(exact, throttle, x, y, false);
+				CulverDrive.setFastMath(true);
+				CulverDrive.culverDriveAlt(fast, throttle, x, y, false);
+				max = Math.max(max, Math.abs(exactLeft.getLast() - fastLeft.getLast()));
+				max = Math.max(max, Math.abs(exactRight.getLast() - fastRight.getLast()));
+			}
+		} finally {
+			CulverDrive.setFastMath(false);
+		}
+
+		assertTrue(max <= CULVER_OUTPUT_TOLERANCE, "max difference " + max);
+	}
+}
@@ -0,0 +1,83 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import src.util.SimulatedClock;
+
+class RobotDriveTest {
+
+	private static final long CYCLE = 20_000_000L;
+
+	private final RecordingMotorSink left = new RecordingMotorSink(16);
+	private final RecordingMotorSink right = new RecordingMotorSink(16);
+	private final RobotDrive rd = new RobotDrive(left, right);
+	private final SimulatedClock clock = new SimulatedClock();
+
+	@Test
+	void deduplicationUsesInjectedClock() {
+		rd.setClock(clock);
+		rd.enableOutputDeduplication(0.01, 0.1);
+
+		rd.tankDrive(0.5, 0.5, false);
+		assertEquals(2, rd.getSentWrites());
+
+		// Unchanged outputs are suppressed until the refresh interval passes
+		for (int i = 0; i < 4; i++) {
+			clock.advance(CYCLE);
+			rd.tankDrive(0.505, 0.5, false);
+		}
+		assertEquals(2, rd.getSentWrites());
+		assertEquals(8, rd.getSuppressedWrites());
+
+		clock.advance(CYCLE);
+		rd.tankDrive(0.5, 0.5, false);
+		assertEquals(4, rd.getSentWrites());
+
+		// A change larger than epsilon is written straight away
+		clock.advance(CYCLE);
+		rd.tankDrive(0.6, 0.5, false);
+		assertEquals(5, rd.getSentWrites());
+		assertEquals(0.6, left.getLast());
+	}
+
+	@Test
+	void firstRateLimitedUpdateDoesNotJump() {
+		rd.enableRateLimiting(2, 4, clock);
+
+		// Time spent between enabling and the first call must not count
+		clock.advance(5_000_000_000L);
+		rd.tankDrive(1, -1, false);
+		assertEquals(0, rd.getLeftOutput());
+		assertEquals(0, rd.getRightOutput());
+
+		clock.advance(CYCLE);
+		rd.tankDrive(1, -1, false);
+		assertEquals(0.04, rd.getLeftOutput(), 1e-12);
+		assertEquals(-0.04, rd.getRightOutput(), 1e-12);
+	}
+
+	@Test
+	void rateLimitedUpdateAfterPauseIsClamped() {
+		rd.enableRateLimiting(2, 4, clock);
+		rd.tankDrive(0, 0, false);
+
+		// A long pause, such as a disabled period, covers at most five cycles
+		clock.advance(30_000_000_000L);
+		rd.tankDrive(1, 1, false);
+		assertEquals(2 * 5 * CYCLE * 1e-9, rd.getLeftOutput(), 1e-12);
+	}
+
+	@Test
+	void changingClockRestartsRateLimitTiming() {
+		rd.enableRateLimiting(2, 4, clock);
+		rd.tankDrive(0, 0, false);
+
+		SimulatedClock other = new SimulatedClock();
+		other.advance(1_000_000_000_000L);
+		rd.setClock(other);
+		rd.tankDrive(1, 1, false);
+		assertEquals(0, rd.getLeftOutput());
+	}
+}
@@ -0,0 +1,173 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SwerveDriveTest {
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+
+	@Test
+	void bufferOverloadMatchesAllocatingOverload() {
+		SwerveDrive swerve = new SwerveDrive(0.6, 0.5);
+		double[] speeds = new double[4];
+		double[] angles = new double[4];
+
+		swerve.calc4WheelVectors(0.3, -0.7, 0.4, 33, speeds, angles);
+		double[][] vectors = swerve.calc4WheelVectors(0.3, -0.7, 0.4, 33);
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(vectors[i][0], speeds[i]);
+			assertEquals(vectors[i][1], angles[i]);
+		}
+	}
+
+	@Test
+	void nWheelMatchesFourWheelOnSameLayout() {
+		SwerveDrive swerve = new SwerveDrive(0.6, 0.5);
+		double[] speeds = new double[4];
+		double[] angles = new double[4];
+		double[][] commands = { { 0, 0, 1, 0 }, { 0, 0, -0.4, 0 }, { 0.3, -0.2, 0.5, 0 }, { -0.7, 0.1, 0.2, 40 },
+				{ 1, 1, 1, -120 } };
+
+		for (double[] c : commands) {
+			swerve.calc4WheelVectors(c[0], c[1], c[2], c[3], speeds, angles);
+			Vector[] vectors = swerve.calcWheelVectorsN(c[0], c[1], c[2], c[3]);
+
+			for (int i = 0; i < 4; i++) {
+				assertEquals(speeds[i], vectors[i].magnitude, 1e-12);
+				assertEquals(0, wrap(90 - angles[i] - vectors[i].angle), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	void rotationMovesModulesTangentially() {
+		Pair[] pairs = { new Pair(-0.3, 0.35), new Pair(0.3, 0.35), new Pair(-0.3, -0.35), new Pair(0.3, -0.35),
+				new Pair(0, 0.5) };
+		SwerveDrive swerve = new SwerveDrive(pairs);
+
+		Vector[] vectors = swerve.calcWheelVectorsN(0, 0, 1, 0);
+
+		for (int i = 0; i < pairs.length; i++) {
+			double a = Math.toRadians(vectors[i].angle);
+			double vStr = vectors[i].magnitude * Math.cos(a);
+			double vFwd = vectors[i].magnitude * Math.sin(a);
+
+			// Perpendicular to the lever arm, and clockwise
+			assertEquals(0, vStr * pairs[i].x + vFwd * pairs[i].y, 1e-12);
+			assertEquals(Math.hypot(pairs[i].x, pairs[i].y), -(pairs[i].x * vFwd - pairs[i].y * vStr)
+					/ vectors[i].magnitude, 1e-12);
+		}
+	}
+
+	@Test
+	void bufferOverloadAllocatesNothing() {
+		SwerveDrive swerve = new SwerveDrive(0.6, 0.5);
+		double[] speeds = new double[4];
+		double[] angles = new double[4];
+		long thread = Thread.currentThread().getId();
+
+		// Class loading and JIT compilation allocate a little on the first rounds,
+		// so take the best of several. Any per-call allocation would show up in
+		// every round as at least 100000 x 16 bytes.
+		long allocated = Long.MAX_VALUE;
+		for (int round = 0; round < 10; round++) {
+			long before = THREADS.getThreadAllocatedBytes(thread);
+			runCycles(swerve, speeds, angles, 100_000);
+			allocated = Math.min(allocated, THREADS.getThreadAllocatedBytes(thread) - before);
+		}
+
+		assertEquals(0, allocated, "bytes allocated by 100000 calls");
+	}
+
+	@Test
+	void optimizeWrapsLargeAndNegativeAngles() {
+		SwerveDrive swerve = new SwerveDrive(0.6, 0.5);
+		double[] current = { 0, 0, 36000, -36000 };
+		double[] speeds = { 1, 1, 1, 1 };
+		double[] targets = { 36000.5, -36000.5, 10, -10 };
+		double[] setpoints = new double[4];
+
+		swerve.optimizeModuleStates(current, speeds, targets, setpoints);
+
+		assertArrayEquals(new double[] { 0.5, -0.5, 36010, -36010 }, setpoints, 1e-9);
+		assertArrayEquals(new double[] { 1, 1, 1, 1 }, speeds);
+	}
+
+	@Test
+	void optimizeTiesAtNinetyKeepDirectionAndAtOneEightyFlip() {
+		SwerveDrive swerve = new SwerveDrive(0.6, 0.5);
+		double[] current = { 0, 0, 0, 0, 720 };
+		double[] speeds = { 1, 1, 1, 1, 1 };
+		double[] targets = { 90, -90, 180, -180, 540 };
+		double[] setpoints = new double[5];
+
+		swerve.optimizeModuleStates(current, speeds, targets, setpoints);
+
+		assertArrayEquals(new double[] { 90, -90, 0, 0, 720 }, setpoints);
+		assertArrayEquals(new double[] { 1, 1, -1, -1, -1 }, speeds);
+	}
+
+	@Test
+	void optimizeFlipsRatherThanSteerPastNinety() {
+		SwerveDrive swerve = new SwerveDrive(0.6, 0.5);
+		double[] current = { 0, 0, 350 };
+		double[] speeds = { 0.7, -0.4, 0.2 };
+		double[] targets = { 135, -100, 200 };
+
+		// The setpoint may share the target array
+		swerve.optimizeModuleStates(current, speeds, targets, targets);
+
+		assertArrayEquals(new double[] { -45, 80, 380 }, targets, 1e-9);
+		assertArrayEquals(new double[] { -0.7, 0.4, -0.2 }, speeds);
+	}
+
+	@Test
+	void optimizedSetpointsStayContinuousWithCurrentAngle() {
+		SwerveDrive swerve = new SwerveDrive(0.6, 0.5);
+		Random random = new Random(226);
+		double[] current = new double[1];
+		double[] speeds = new double[1];
+		double[] targets = new double[1];
+		double[] setpoints = new double[1];
+
+		for (int i = 0; i < 10_000; i++) {
+			current[0] = (random.nextDouble() - 0.5) * 72000;
+			targets[0] = (random.nextDouble() - 0.5) * 72000;
+			speeds[0] = 1;
+			swerve.optimizeModuleStates(current, speeds, targets, setpoints);
+
+			String message = "current " + current[0] + ", target " + targets[0];
+			assertTrue(Math.abs(setpoints[0] - current[0]) <= 90 + 1e-9, message);
+
+			// Same heading as the target, or the opposite heading when flipped
+			double heading = speeds[0] > 0 ? targets[0] : targets[0] + 180;
+			assertEquals(0, wrap(setpoints[0] - heading), 1e-6, message);
+		}
+	}
+
+	private static double wrap(double degrees) {
+		degrees %= 360;
+		if (degrees > 180) {
+			degrees -= 360;
+		} else if (degrees < -180) {
+			degrees += 360;
+		}
+		return degrees;
+	}
+
+	private static void runCycles(SwerveDrive swerve, double[] speeds, double[] angles, int cycles) {
+		for (int i = 0; i < cycles; i++) {
+			double t = i * 1e-4;
+			swerve.calc4WheelVectors(Math.sin(t), Math.cos(t), 0.5, i, speeds, angles);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SwerveModuleRateLimiterTest {
+
+	private static final double ACCELERATION = 2;
+	private static final double DECELERATION = 4;
+	private static final double DT = 0.1;
+	private static final double EPSILON = 1e-12;
+
+	@Test
+	void rejectsRatesThatAreNotPositive() {
+		assertThrows(IllegalArgumentException.class, () -> new SwerveModuleRateLimiter(4, 0, 1));
+		assertThrows(IllegalArgumentException.class, () -> new SwerveModuleRateLimiter(4, 1, -1));
+		assertThrows(IllegalArgumentException.class, () -> new SwerveModuleRateLimiter(4, Double.NaN, 1));
+	}
+
+	@Test
+	void limitsEachDirectionAwayFromAndTowardsZero() {
+		SwerveModuleRateLimiter limiter = new SwerveModuleRateLimiter(4, ACCELERATION, DECELERATION);
+		limiter.reset(0);
+
+		// Speeding up forwards and backwards uses the acceleration rate
+		double[] speeds = { 1, -1, 0.1, 0 };
+		limiter.calculate(speeds, DT);
+		assertArrayEquals(new double[] { 0.2, -0.2, 0.1, 0 }, speeds, EPSILON);
+
+		// Slowing down in either direction uses the deceleration rate
+		limiter.reset(1);
+		speeds = new double[] { 0, 0.5, 0.9, 1 };
+		limiter.calculate(speeds, DT);
+		assertArrayEquals(new double[] { 0.6, 0.6, 0.9, 1 }, speeds, EPSILON);
+
+		limiter.reset(-1);
+		speeds = new double[] { 0, -0.5, -0.9, -1 };
+		limiter.calculate(speeds, DT);
+		assertArrayEquals(new double[] { -0.6, -0.6, -0.9, -1 }, speeds, EPSILON);
+	}
+
+	@Test
+	void keepsModulesIndependent() {
+		SwerveModuleRateLimiter limiter = new SwerveModuleRateLimiter(2, ACCELERATION, DECELERATION);
+		double[] speeds = { 1, 0 };
+		for (int i = 0; i < 3; i++) {
+			speeds[0] = 1;
+			speeds[1] = 0;
+			limiter.calculate(speeds, DT);
+		}
+
+		assertEquals(0.6, limiter.getSpeed(0), EPSILON);
+		assertEquals(0, limiter.getSpeed(1));
+	}
+
+	@Test
+	void ignoresTimeStepsThatAreNotPositive() {
+		SwerveModuleRateLimiter limiter = new SwerveModuleRateLimiter(1, ACCELERATION, DECELERATION);
+		limiter.reset(0.5);
+		double[] speeds = { -1 };
+		limiter.calculate(speeds, 0);
+		assertEquals(0.5, speeds[0]);
+		speeds[0] = -1;
+		limiter.calculate(speeds, -DT);
+		assertEquals(0.5, speeds[0]);
+	}
+
+	@Test
+	void flippedModuleRampsThroughZero() {
+		SwerveDrive swerve = new SwerveDrive(0.6, 0.5);
+		SwerveModuleRateLimiter limiter = new SwerveModuleRateLimiter(1, ACCELERATION, DECELERATION);
+		limiter.reset(0.5);
+
+		// Asking the module to drive the other way flips it instead of steering
+		// it half a turn, which reverses its speed
+		double[] current = { 10 };
+		double[] speeds = { 0.5 };
+		double[] setpoints = { 190 };
+		swerve.optimizeModuleStates(current, speeds, setpoints, setpoints);
+		assertEquals(10, setpoints[0], EPSILON);
+		assertEquals(-0.5, speeds[0]);
+
+		// 0.125 s to stop at the deceleration rate, then speed up the other way
+		double[] expected = { 0.1, -0.15, -0.35, -0.5, -0.5 };
+		double previous = 0.5;
+		for (double e : expected) {
+			speeds[0] = -0.5;
+			limiter.calculate(speeds, DT);
+			assertEquals(e, speeds[0], EPSILON);
+			assertTrue(Math.abs(speeds[0] - previous) <= DECELERATION * DT + EPSILON);
+			previous = speeds[0];
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package src.libs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SwerveOdometryTest {
+
+	private static final Pair[] IRREGULAR = { new Pair(-0.3, 0.35), new Pair(0.3, 0.35), new Pair(-0.3, -0.35),
+			new Pair(0.3, -0.35), new Pair(0.05, 0.5) };
+
+	@Test
+	void nWheelRoundTripReturnsCommand() {
+		SwerveDrive swerve = new SwerveDrive(IRREGULAR);
+		SwerveOdometry odometry = new SwerveOdometry(IRREGULAR);
+		double[] speeds = new double[IRREGULAR.length];
+		double[] angles = new double[IRREGULAR.length];
+		Random random = new Random(226);
+
+		for (int k = 0; k < 1000; k++) {
+			// Small enough that no module speed is normalized
+			double str = random.nextDouble() * 0.6 - 0.3;
+			double fwd = random.nextDouble() * 0.6 - 0.3;
+			double rcw = random.nextDouble() * 0.6 - 0.3;
+
+			Vector[] vectors = swerve.calcWheelVectorsN(str, fwd, rcw, 0);
+			for (int i = 0; i < vectors.length; i++) {
+				speeds[i] = vectors[i].magnitude;
+				angles[i] = vectors[i].angle;
+			}
+			odometry.calcChassisVelocity(speeds, angles);
+
+			assertEquals(str, odometry.getStrafeVelocity(), 1e-12);
+			assertEquals(fwd, odometry.getForwardVelocity(), 1e-12);
+			assertEquals(rcw, odometry.getRotationCommand(), 1e-12);
+		}
+	}
+
+	@Test
+	void fourWheelRoundTripReturnsCommand() {
+		SwerveDrive swerve = new SwerveDrive(0.6, 0.5);
+		SwerveOdometry odometry = new SwerveOdometry(new Pair[] { new Pair(-0.25, 0.3), new Pair(0.25, 0.3),
+				new Pair(-0.25, -0.3), new Pair(0.25, -0.3) });
+		double[] speeds = new double[4];
+		double[] angles = new double[4];
+
+		swerve.calc4WheelVectors(0.2, -0.1, 0.3, 0, speeds, angles);
+		for (int i = 0; i < 4; i++) {
+			angles[i] = 90 - angles[i];
+		}
+		odometry.calcChassisVelocity(speeds, angles);
+
+		assertEquals(0.2, odometry.getStrafeVelocity(), 1e-12);
+		assertEquals(-0.1, odometry.getForwardVelocity(), 1e-12);
+		assertEquals(0.3, odometry.getRotationCommand(), 1e-12);
+	}
+
+	@Test
+	void pureRotationTurnsClockwise() {
+		SwerveDrive swerve = new SwerveDrive(0.6, 0.5);
+		SwerveOdometry odometry = new SwerveOdometry(new Pair[] { new Pair(-0.25, 0.3), new Pair(0.25, 0.3),
+				new Pair(-0.25, -0.3), new Pair(0.25, -0.3) });
+		double[] speeds = new double[4];
+		double[] angles = new double[4];
+
+		Vector[] vectors = swerve.calcWheelVectorsN(0, 0, 1, 0);
+		for (int i = 0; i < 4; i++) {
+			speeds[i] = vectors[i].magnitude;
+			angles[i] = vectors[i].angle;
+		}
+		odometry.calcChassisVelocity(speeds, angles);
+
+		assertEquals(0, odometry.getStrafeVelocity(), 1e-12);
+		assertEquals(0, odometry.getForwardVelocity(), 1e-12);
+		assertEquals(-1 / Math.hypot(0.25, 0.3), odometry.getAngularVelocity(), 1e-12);
+	}
+
+	@Test
+	void integratesPose() {
+		SwerveOdometry odometry = new SwerveOdometry(IRREGULAR);
+		double[] speeds = { 1, 1, 1, 1, 1 };
+		double[] angles = { 90, 90, 90, 90, 90 };
+
+		for (int i = 0; i < 50; i++) {
+			odometry.update(speeds, angles, 0.02);
+		}
+
+		assertEquals(0, odometry.getX(), 1e-12);
+		assertEquals(1, odometry.getY(), 1e-12);
+		assertEquals(0, odometry.getHeading(), 1e-12);
+	}
+}
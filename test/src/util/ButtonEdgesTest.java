@@ -0,0 +1,101 @@
+package src.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives {@link ButtonEdges} with scripted button states and timestamps.
+ * Timestamps are multiples of 1/8 s so the rate limit boundaries are exact.
+ */
+class ButtonEdgesTest {
+
+	private static final int A = 1;
+	private static final int B = 2;
+	private static final int X = 3;
+
+	private static int mask(int... buttons) {
+		int mask = 0;
+		for (int button : buttons) {
+			mask |= 1 << (button - 1);
+		}
+		return mask;
+	}
+
+	@Test
+	void reportsRisingAndFallingEdgesForOneUpdate() {
+		ButtonEdges edges = new ButtonEdges();
+
+		edges.update(mask(A, X), 0);
+		assertEquals(mask(A, X), edges.getRisingMask());
+		assertEquals(0, edges.getFallingMask());
+
+		edges.update(mask(B, X), 0.125);
+		assertEquals(mask(B, X), edges.getPressedMask());
+		assertEquals(mask(B), edges.getRisingMask());
+		assertEquals(mask(A), edges.getFallingMask());
+		assertTrue(edges.isRising(B));
+		assertTrue(edges.isFalling(A));
+		assertFalse(edges.isRising(X));
+		assertTrue(edges.isPressed(X));
+
+		// Edges last until the next update, however often they are read
+		assertTrue(edges.isRising(B));
+
+		edges.update(mask(B, X), 0.25);
+		assertEquals(0, edges.getRisingMask());
+		assertEquals(0, edges.getFallingMask());
+		assertEquals(0.25, edges.getTimestamp());
+	}
+
+	@Test
+	void measuresHoldTimeFromThePress() {
+		ButtonEdges edges = new ButtonEdges();
+		edges.update(0, 0.5);
+		edges.update(mask(X), 1);
+		assertEquals(0, edges.getHeldTime(X));
+
+		edges.update(mask(X), 1.5);
+		assertEquals(0.5, edges.getHeldTime(X));
+		assertTrue(edges.isHeldFor(X, 0.5));
+		assertFalse(edges.isHeldFor(X, 0.625));
+		assertEquals(0, edges.getHeldTime(A));
+		assertFalse(edges.isHeldFor(A, 0));
+
+		// Releasing and pressing again starts the hold over
+		edges.update(0, 1.625);
+		assertEquals(0, edges.getHeldTime(X));
+		assertFalse(edges.isHeldFor(X, 0));
+		edges.update(mask(X), 2);
+		edges.update(mask(X), 2.25);
+		assertEquals(0.25, edges.getHeldTime(X));
+	}
+
+	@Test
+	void rateLimitsEachButtonSeparately() {
+		ButtonEdges edges = new ButtonEdges();
+		double period = 0.25;
+
+		edges.update(mask(A), 10);
+		assertTrue(edges.every(A, period));
+		assertFalse(edges.every(A, period), "second read in the same update");
+
+		edges.update(mask(A, B), 10.125);
+		assertFalse(edges.every(A, period));
+		assertTrue(edges.every(B, period));
+
+		// Exactly one period later is not yet past the limit
+		edges.update(mask(A, B), 10.25);
+		assertFalse(edges.every(A, period));
+
+		edges.update(mask(A, B), 10.375);
+		assertTrue(edges.every(A, period));
+		assertFalse(edges.every(B, period));
+
+		edges.update(mask(B), 11);
+		assertFalse(edges.every(A, period), "released");
+		assertTrue(edges.every(B, period));
+	}
+}
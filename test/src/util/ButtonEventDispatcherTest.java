@@ -0,0 +1,137 @@
+package src.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class ButtonEventDispatcherTest {
+
+	@Test
+	void stopWaitsForPollerToExit() throws InterruptedException {
+		AtomicInteger polls = new AtomicInteger();
+		ButtonEventDispatcher dispatcher = new ButtonEventDispatcher(() -> {
+			polls.incrementAndGet();
+			return 0;
+		}, () -> 0, 16);
+
+		dispatcher.start(0.001);
+		Thread.sleep(20);
+		dispatcher.stop();
+
+		int stopped = polls.get();
+		Thread.sleep(20);
+		assertEquals(stopped, polls.get());
+	}
+
+	@Test
+	void restartNeverRunsTwoPollers() {
+		AtomicInteger polls = new AtomicInteger();
+		AtomicInteger inside = new AtomicInteger();
+		AtomicBoolean overlapped = new AtomicBoolean();
+		ButtonEventDispatcher dispatcher = new ButtonEventDispatcher(() -> {
+			polls.incrementAndGet();
+			if (inside.incrementAndGet() > 1) {
+				overlapped.set(true);
+			}
+			// Stay inside the read long enough for a restart to race it
+			long end = System.nanoTime() + 50_000;
+			while (System.nanoTime() < end) {
+				Thread.onSpinWait();
+			}
+			inside.decrementAndGet();
+			return 0;
+		}, () -> 0, 16);
+
+		for (int i = 0; i < 200; i++) {
+			int before = polls.get();
+			dispatcher.start(0.0001);
+			// Stop while the poller is inside a read
+			while (polls.get() < before + 2) {
+				Thread.onSpinWait();
+			}
+			dispatcher.stop();
+		}
+
+		assertFalse(overlapped.get());
+	}
+
+	@Test
+	void dispatchesPressAndRelease() {
+		AtomicInteger buttons = new AtomicInteger();
+		AtomicInteger presses = new AtomicInteger();
+		AtomicInteger releases = new AtomicInteger();
+		ButtonEventDispatcher dispatcher = new ButtonEventDispatcher(buttons::get, () -> 0, 16);
+		dispatcher.onPress(2, presses::incrementAndGet);
+		dispatcher.onRelease(2, releases::incrementAndGet);
+
+		buttons.set(0b10);
+		dispatcher.poll();
+		buttons.set(0);
+		dispatcher.poll();
+
+		assertEquals(2, dispatcher.dispatch());
+		assertEquals(1, presses.get());
+		assertEquals(1, releases.get());
+	}
+
+	@Test
+	void throwingHandlerNeitherRepeatsNorBlocksQueue() {
+		AtomicInteger buttons = new AtomicInteger();
+		AtomicInteger first = new AtomicInteger();
+		AtomicInteger third = new AtomicInteger();
+		ButtonEventDispatcher dispatcher = new ButtonEventDispatcher(buttons::get, () -> 0, 4);
+		dispatcher.onPress(1, first::incrementAndGet);
+		dispatcher.onPress(2, () -> {
+			throw new IllegalStateException("handler failed");
+		});
+		dispatcher.onPress(3, third::incrementAndGet);
+
+		buttons.set(0b111);
+		dispatcher.poll();
+
+		assertThrows(IllegalStateException.class, dispatcher::dispatch);
+		assertEquals(1, first.get());
+		assertEquals(0, third.get());
+
+		// The rest of the batch runs next time, without repeating the first
+		assertEquals(1, dispatcher.dispatch());
+		assertEquals(1, first.get());
+		assertEquals(1, third.get());
+
+		// And the queue keeps accepting events
+		for (int i = 0; i < 8; i++) {
+			buttons.set(0);
+			dispatcher.poll();
+			buttons.set(0b001);
+			dispatcher.poll();
+			dispatcher.dispatch();
+		}
+		assertEquals(9, first.get());
+		assertEquals(0, dispatcher.getDroppedEvents());
+	}
+
+	@Test
+	void buttonHeldAtStartWaitsFullHoldTime() throws InterruptedException {
+		AtomicLong time = new AtomicLong(Double.doubleToLongBits(10.0));
+		AtomicInteger holds = new AtomicInteger();
+		ButtonEventDispatcher dispatcher = new ButtonEventDispatcher(() -> 0b1,
+				() -> Double.longBitsToDouble(time.get()), 16);
+		dispatcher.onHold(1, 0.5, holds::incrementAndGet);
+
+		dispatcher.start(0.001);
+		Thread.sleep(20);
+		dispatcher.stop();
+		assertEquals(0, dispatcher.dispatch());
+
+		time.set(Double.doubleToLongBits(10.6));
+		dispatcher.poll();
+		assertEquals(1, dispatcher.dispatch());
+		assertEquals(1, holds.get());
+	}
+}
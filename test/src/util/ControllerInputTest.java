@@ -0,0 +1,118 @@
+package src.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ControllerInputTest {
+
+	private static final int PORT = 0;
+	private static final double DEADBAND = 0.15;
+
+	private final ScriptedInputSource source = new ScriptedInputSource(0.125);
+	private final ControllerInput input = new ControllerInput(PORT, DEADBAND, source);
+
+	/**
+	 * The stick rule of the original Controller: values inside the deadband,
+	 * including its edge, read 0, and everything else is negated
+	 */
+	private static double legacyStick(double raw) {
+		return Math.abs(raw) > DEADBAND ? -raw : 0;
+	}
+
+	@Test
+	void snapshotMatchesLegacyGetters() {
+		double[] raws = { 0, 0.1, -0.1, DEADBAND, -DEADBAND, 0.16, -0.5, 1, -1 };
+		int[] buttonStates = { 0, 0b1, 0b1000100000, 0b1111111111 };
+		int[] povs = { -1, 0, 90, 270 };
+
+		for (int i = 0; i < raws.length; i++) {
+			double raw = raws[i];
+			source.setAxis(PORT, 0, raw);
+			source.setAxis(PORT, 1, -raw);
+			source.setAxis(PORT, 4, raw / 2);
+			source.setAxis(PORT, 5, raw);
+			source.setAxis(PORT, 2, Math.abs(raw) / 3);
+			source.setAxis(PORT, 3, Math.abs(raw));
+			source.setButtons(PORT, buttonStates[i % buttonStates.length]);
+			source.setPOV(PORT, povs[i % povs.length]);
+
+			ControllerState state = input.snapshot();
+			String message = "raw " + raw;
+
+			// Sticks are deadbanded and negated
+			assertEquals(legacyStick(raw), state.leftX, message);
+			assertEquals(legacyStick(-raw), state.leftY, message);
+			assertEquals(legacyStick(raw / 2), state.rightX, message);
+			assertEquals(legacyStick(raw), state.rightY, message);
+			assertEquals(input.getLeftX(), state.leftX, message);
+			assertEquals(input.getLeftY(), state.leftY, message);
+			assertEquals(input.getRightX(), state.rightX, message);
+			assertEquals(input.getRightY(), state.rightY, message);
+
+			// Triggers are raw, even inside the deadband
+			assertEquals(Math.abs(raw) / 3, state.leftTrigger, message);
+			assertEquals(Math.abs(raw), state.rightTrigger, message);
+			assertEquals(input.getLeftTrigger(), state.leftTrigger, message);
+			assertEquals(input.getRightTrigger(), state.rightTrigger, message);
+			assertEquals(Math.abs(raw) / 3 - Math.abs(raw), state.getTriggers(), message);
+
+			// Buttons are packed with button n in bit n - 1
+			assertEquals(buttonStates[i % buttonStates.length], state.buttons, message);
+			for (int button = 1; button <= 10; button++) {
+				assertEquals(input.isPressed(button), state.isPressed(button), message + ", button " + button);
+			}
+
+			assertEquals(povs[i % povs.length], state.pov, message);
+			assertEquals(input.getPOV(), state.pov, message);
+		}
+	}
+
+	@Test
+	void snapshotIsReusedAndStampedWithSourceTime() {
+		ControllerState first = input.snapshot();
+		source.advance();
+		source.advance();
+		ControllerState second = input.snapshot();
+
+		assertSame(first, second);
+		assertSame(second, input.getState());
+		assertEquals(0.25, second.timestamp);
+	}
+
+	@Test
+	void polledButtonPressesLeaveSnapshotEdgesAlone() {
+		int[] buttons = new int[8];
+		for (int i = 4; i < 8; i++) {
+			buttons[i] = 1;
+		}
+		source.setButtonTrace(PORT, buttons);
+
+		// Without snapshots, each call reads the buttons itself
+		boolean[] expected = { false, false, false, false, true, false, false, true };
+		for (int i = 0; i < buttons.length; i++) {
+			assertEquals(expected[i], input.getButtonPressed(1, 0.25), "cycle " + i);
+			assertFalse(input.getButtonPressed(1, 0.25), "second call in cycle " + i);
+			source.advance();
+		}
+
+		ButtonEdges edges = input.getButtonEdges();
+		assertEquals(0, edges.getPressedMask());
+		assertEquals(0, edges.getTimestamp());
+
+		// Once snapshots start, polling no longer moves the edges
+		source.rewind();
+		source.advance();
+		source.advance();
+		source.advance();
+		source.advance();
+		input.snapshot();
+		input.getButtonPressed(1, 0.25);
+		input.getButtonPressed(1, 0.25);
+		assertTrue(edges.isRising(1));
+		assertEquals(0.5, edges.getTimestamp());
+	}
+}
@@ -0,0 +1,123 @@
+package src.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import src.libs.CheesyDrive;
+import src.libs.RecordingMotorSink;
+import src.libs.RobotDrive;
+
+/**
+ * Runs scripted controller traces through {@link ControllerInput} and Cheesy
+ * Drive into a {@link RobotDrive}, the way a teleop loop would, without the
+ * HAL.
+ */
+class ControllerPipelineTest {
+
+	private static final int PORT = 0;
+	private static final double DEADBAND = 0.15;
+	private static final double PERIOD = 0.02;
+	private static final int CYCLES = 100;
+
+	/**
+	 * Right bumper holds quick turn
+	 */
+	private static final int QUICK_TURN_BUTTON = 6;
+
+	/**
+	 * Pushing the directional pad right halves the throttle
+	 */
+	private static final int SLOW_POV = 90;
+
+	private final ScriptedInputSource source = new ScriptedInputSource(PERIOD);
+	private final ControllerInput input = new ControllerInput(PORT, DEADBAND, source);
+	private final RecordingMotorSink left = new RecordingMotorSink(CYCLES);
+	private final RecordingMotorSink right = new RecordingMotorSink(CYCLES);
+	private final RobotDrive rd = new RobotDrive(left, right);
+
+	private final double[] leftY = new double[CYCLES];
+	private final double[] rightX = new double[CYCLES];
+	private final int[] buttons = new int[CYCLES];
+	private final int[] pov = new int[CYCLES];
+
+	ControllerPipelineTest() {
+		for (int i = 0; i < CYCLES; i++) {
+			// Stick pushed forward reads negative, and ramps through the deadband
+			leftY[i] = -Math.sin(i * 0.07);
+			rightX[i] = 0.8 * Math.cos(i * 0.11);
+			buttons[i] = i >= 40 && i < 60 ? 1 << (QUICK_TURN_BUTTON - 1) : 0;
+			pov[i] = i >= 80 ? SLOW_POV : -1;
+		}
+		source.setAxisTrace(PORT, 1, leftY);
+		source.setAxisTrace(PORT, 4, rightX);
+		source.setButtonTrace(PORT, buttons);
+		source.setPOVTrace(PORT, pov);
+	}
+
+	/**
+	 * One teleop cycle: snapshot the controller and drive from the snapshot.
+	 */
+	private void teleopCycle() {
+		ControllerState state = input.snapshot();
+		double throttle = state.pov == SLOW_POV ? 0.5 * state.leftY : state.leftY;
+		CheesyDrive.cheesyDrive(rd, throttle, state.rightX, state.isPressed(QUICK_TURN_BUTTON), false);
+	}
+
+	private static double deadband(double raw) {
+		return Math.abs(raw) > DEADBAND ? -raw : 0;
+	}
+
+	@Test
+	void scriptedTracesDriveMotors() {
+		CheesyDrive cheesy = new CheesyDrive();
+		double[] expected = new double[2];
+
+		for (int i = 0; i < CYCLES; i++) {
+			teleopCycle();
+
+			double throttle = deadband(leftY[i]) * (i >= 80 ? 0.5 : 1);
+			cheesy.calculate(throttle, deadband(rightX[i]), i >= 40 && i < 60, expected);
+			assertEquals(expected[0], left.getLast(), 0, "left at cycle " + i);
+			assertEquals(expected[1], right.getLast(), 0, "right at cycle " + i);
+
+			source.advance();
+		}
+
+		assertEquals(CYCLES, left.getCount());
+		assertEquals(CYCLES, right.getCount());
+	}
+
+	@Test
+	void sticksInsideDeadbandStopMotors() {
+		source.setAxisTrace(PORT, 1, new double[] { 0.1 });
+		source.setAxisTrace(PORT, 4, new double[] { -0.14 });
+		source.setButtonTrace(PORT, new int[] { 0 });
+
+		teleopCycle();
+
+		assertEquals(0, left.getLast(), 0);
+		assertEquals(0, right.getLast(), 0);
+	}
+
+	@Test
+	void quickTurnEdgesFollowScriptedTime() {
+		ButtonEdges edges = input.getButtonEdges();
+
+		for (int i = 0; i < CYCLES; i++) {
+			teleopCycle();
+
+			assertEquals(i == 40, edges.isRising(QUICK_TURN_BUTTON), "rising at cycle " + i);
+			assertEquals(i == 60, edges.isFalling(QUICK_TURN_BUTTON), "falling at cycle " + i);
+			if (i == 59) {
+				assertEquals(19 * PERIOD, edges.getHeldTime(QUICK_TURN_BUTTON), 1e-9);
+				assertTrue(edges.isHeldFor(QUICK_TURN_BUTTON, 0.3));
+				assertFalse(edges.isHeldFor(QUICK_TURN_BUTTON, 0.4));
+			}
+
+			source.advance();
+		}
+	}
+}
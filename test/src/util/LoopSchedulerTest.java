@@ -0,0 +1,104 @@
+package src.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class LoopSchedulerTest {
+
+	private static final double PERIOD = 0.02;
+	private static final long PERIOD_NANOS = 20_000_000;
+	private static final long MS = 1_000_000;
+
+	@Test
+	void rejectsPeriodsShorterThanOneNanosecond() throws InterruptedException {
+		SimulatedClock clock = new SimulatedClock();
+		for (double period : new double[] { 0, -PERIOD, 1e-10, Double.NaN }) {
+			assertThrows(IllegalArgumentException.class, () -> new LoopScheduler(clock, period), "period " + period);
+		}
+		new LoopScheduler(clock, 1e-9).runCycle();
+	}
+
+	@Test
+	void runsStagesInOrderEachCycle() throws InterruptedException {
+		StringBuilder order = new StringBuilder();
+		LoopScheduler scheduler = new LoopScheduler(new SimulatedClock(), PERIOD);
+		scheduler.addStage(() -> order.append('r'));
+		scheduler.addStage(() -> order.append('c'));
+		scheduler.addStage(() -> order.append('w'));
+
+		scheduler.run(3);
+
+		assertEquals("rcwrcwrcw", order.toString());
+		assertEquals(3, scheduler.getCycles());
+	}
+
+	@Test
+	void recordsJitterAndExecutionTime() throws InterruptedException {
+		SimulatedClock clock = new SimulatedClock();
+		LoopScheduler scheduler = new LoopScheduler(clock, PERIOD);
+		scheduler.addStage(() -> clock.advance(5 * MS));
+
+		scheduler.runCycle();
+		assertEquals(0, scheduler.getLastJitter());
+		assertEquals(5 * MS, scheduler.getLastExecution());
+
+		// Something else holds the thread past the next start
+		clock.advance(17 * MS);
+		scheduler.runCycle();
+		assertEquals(2 * MS, scheduler.getLastJitter());
+		assertEquals(27 * MS, clock.nanoTime());
+
+		scheduler.runCycle();
+		assertEquals(0, scheduler.getLastJitter());
+		assertEquals(2 * PERIOD_NANOS + 5 * MS, clock.nanoTime());
+
+		assertEquals(3, scheduler.getCycles());
+		assertEquals(0, scheduler.getOverruns());
+		assertEquals(2 * MS, scheduler.getMaxJitter());
+		assertEquals(2.0 * MS / 3, scheduler.getMeanJitter(), 1e-6);
+		assertEquals(5 * MS, scheduler.getMaxExecution());
+		assertEquals(5.0 * MS, scheduler.getMeanExecution(), 1e-6);
+	}
+
+	@Test
+	void overrunSkipsMissedStartsOnTheGrid() throws InterruptedException {
+		SimulatedClock clock = new SimulatedClock();
+		LoopScheduler scheduler = new LoopScheduler(clock, PERIOD);
+		long[] durations = { 45 * MS, 1 * MS, PERIOD_NANOS, 1 * MS };
+		long[] starts = new long[durations.length];
+		int[] cycle = { 0 };
+		scheduler.addStage(() -> {
+			starts[cycle[0]] = clock.nanoTime();
+			clock.advance(durations[cycle[0]++]);
+		});
+
+		scheduler.run(durations.length);
+
+		// The 45 ms cycle misses the starts at 20 and 40 ms; a cycle that ends
+		// exactly on the next start is not an overrun
+		assertArrayEquals(new long[] { 0, 3 * PERIOD_NANOS, 4 * PERIOD_NANOS, 5 * PERIOD_NANOS }, starts);
+		assertEquals(1, scheduler.getOverruns());
+		assertEquals(0, scheduler.getMaxJitter());
+		assertEquals(45 * MS, scheduler.getMaxExecution());
+	}
+
+	@Test
+	void resetMetricsKeepsSchedule() throws InterruptedException {
+		SimulatedClock clock = new SimulatedClock();
+		LoopScheduler scheduler = new LoopScheduler(clock, PERIOD);
+		scheduler.addStage(() -> clock.advance(30 * MS));
+		scheduler.run(2);
+
+		scheduler.resetMetrics();
+		assertEquals(0, scheduler.getCycles());
+		assertEquals(0, scheduler.getOverruns());
+		assertEquals(0, scheduler.getMeanExecution());
+
+		scheduler.runCycle();
+		assertEquals(0, scheduler.getLastJitter());
+		assertEquals(4 * PERIOD_NANOS, clock.nanoTime() - 30 * MS);
+	}
+}
@@ -0,0 +1,88 @@
+package src.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PhotoeyeDistanceTableTest {
+
+	private static final double[] VOLTS = PhotoeyeDistanceTable.GP2Y0A21YK_VOLTS;
+	private static final double[] CENTIMETERS = PhotoeyeDistanceTable.GP2Y0A21YK_CENTIMETERS;
+
+	/**
+	 * Largest error allowed at the datasheet points with the default table, in
+	 * centimeters
+	 */
+	private static final double DATASHEET_TOLERANCE = 0.1;
+
+	@Test
+	void matchesDatasheetPoints() {
+		PhotoeyeDistanceTable table = new PhotoeyeDistanceTable();
+
+		for (int i = 0; i < VOLTS.length; i++) {
+			assertEquals(CENTIMETERS[i], table.getDistance(VOLTS[i]), DATASHEET_TOLERANCE,
+					"distance at " + VOLTS[i] + " V");
+		}
+	}
+
+	@Test
+	void matchesInverseDistanceInterpolationBetweenPoints() {
+		PhotoeyeDistanceTable table = new PhotoeyeDistanceTable();
+
+		double max = 0;
+		for (int i = 0; i < VOLTS.length - 1; i++) {
+			for (int step = 0; step <= 100; step++) {
+				double t = step / 100.0;
+				double v = VOLTS[i] + t * (VOLTS[i + 1] - VOLTS[i]);
+				double expected = 1 / ((1 - t) / CENTIMETERS[i] + t / CENTIMETERS[i + 1]);
+				max = Math.max(max, Math.abs(table.getDistance(v) - expected));
+			}
+		}
+
+		assertTrue(max <= DATASHEET_TOLERANCE, "max error " + max + " cm");
+	}
+
+	@Test
+	void distanceFallsAsVoltageRises() {
+		PhotoeyeDistanceTable table = new PhotoeyeDistanceTable();
+
+		double previous = Double.POSITIVE_INFINITY;
+		for (double v = VOLTS[0]; v <= VOLTS[VOLTS.length - 1]; v += 0.001) {
+			double distance = table.getDistance(v);
+			assertTrue(distance <= previous, "distance rose at " + v + " V");
+			previous = distance;
+		}
+	}
+
+	@Test
+	void clampsOutsideCalibratedRange() {
+		PhotoeyeDistanceTable table = new PhotoeyeDistanceTable();
+
+		assertEquals(CENTIMETERS[0], table.getDistance(0), 0);
+		assertEquals(CENTIMETERS[CENTIMETERS.length - 1], table.getDistance(5), 0);
+	}
+
+	@Test
+	void loadsUnsortedCalibrationFile(@TempDir Path dir) throws IOException {
+		StringBuilder file = new StringBuilder("# volts, centimeters\n\n");
+		for (int i = VOLTS.length - 1; i >= 0; i--) {
+			file.append(VOLTS[i]).append(", ").append(CENTIMETERS[i]).append('\n');
+		}
+		Path path = dir.resolve("gp2y0a21yk.csv");
+		Files.write(path, Arrays.asList(file.toString().split("\n")));
+
+		PhotoeyeDistanceTable loaded = PhotoeyeDistanceTable.load(path.toString(), 256);
+		PhotoeyeDistanceTable builtIn = new PhotoeyeDistanceTable();
+
+		for (double v = 0; v <= 3; v += 0.01) {
+			assertEquals(builtIn.getDistance(v), loaded.getDistance(v), 0, "distance at " + v + " V");
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package src.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Feeds voltage traces through {@link PhotoeyeFilter}. Samples are 1/64 s
+ * apart so debounce boundaries are exact.
+ */
+class PhotoeyeFilterTest {
+
+	private static final double COVERED = 2.0;
+	private static final double UNCOVERED = 1.0;
+	private static final double PERIOD = 1 / 64.0;
+
+	/**
+	 * Runs a trace, one sample per period starting at <b>start</b>, and returns
+	 * the filter output after each sample.
+	 */
+	private static boolean[] run(PhotoeyeFilter filter, double start, double... trace) {
+		boolean[] out = new boolean[trace.length];
+		for (int i = 0; i < trace.length; i++) {
+			out[i] = filter.update(trace[i], start + i * PERIOD);
+		}
+		return out;
+	}
+
+	@Test
+	void rejectsBadSettings() {
+		assertThrows(IllegalArgumentException.class, () -> new PhotoeyeFilter(0, COVERED, UNCOVERED, 0));
+		assertThrows(IllegalArgumentException.class, () -> new PhotoeyeFilter(4, UNCOVERED, COVERED, 0));
+	}
+
+	@Test
+	void meanCoversOnlyTheLastSamples() {
+		PhotoeyeFilter filter = new PhotoeyeFilter(4, COVERED, UNCOVERED, 0);
+		assertEquals(0, filter.getMean());
+
+		// Until the ring fills, the mean is over the samples seen so far
+		run(filter, 0, 1, 2);
+		assertEquals(1.5, filter.getMean());
+		run(filter, 0, 3, 4);
+		assertEquals(2.5, filter.getMean());
+		run(filter, 0, 5, 6);
+		assertEquals(4.5, filter.getMean());
+
+		// The running sum must not drift from the true mean over a long trace
+		Random random = new Random(226);
+		double[] trace = new double[100_000];
+		for (int i = 0; i < trace.length; i++) {
+			trace[i] = random.nextDouble() * 5;
+		}
+		run(filter, 0, trace);
+		double last4 = (trace[trace.length - 1] + trace[trace.length - 2] + trace[trace.length - 3]
+				+ trace[trace.length - 4]) / 4;
+		assertEquals(last4, filter.getMean(), 1e-9);
+	}
+
+	@Test
+	void hysteresisIgnoresNoiseInsideTheBand() {
+		PhotoeyeFilter filter = new PhotoeyeFilter(1, COVERED, UNCOVERED, 0);
+
+		// Rising: nothing changes until the covered threshold
+		assertFalse(filter.update(1.5, 0));
+		assertFalse(filter.update(1.99, 0));
+		assertTrue(filter.update(COVERED, 0));
+
+		// Noise crossing back below the covered threshold stays covered
+		boolean[] out = run(filter, 0, 1.8, 2.1, 1.2, 1.9, UNCOVERED, 1.4);
+		for (int i = 0; i < out.length; i++) {
+			assertTrue(out[i], "sample " + i);
+		}
+
+		// Falling below the uncovered threshold uncovers
+		assertFalse(filter.update(0.99, 0));
+
+		// Noise crossing back above the uncovered threshold stays uncovered
+		out = run(filter, 0, 1.1, 0.5, 1.9, 1.5);
+		for (int i = 0; i < out.length; i++) {
+			assertFalse(out[i], "sample " + i);
+		}
+	}
+
+	@Test
+	void changesShorterThanDebounceAreIgnored() {
+		double debounce = 4 * PERIOD;
+		PhotoeyeFilter filter = new PhotoeyeFilter(1, COVERED, UNCOVERED, debounce);
+
+		// Covered for 3 periods, one short of the debounce time
+		boolean[] out = run(filter, 0, 3, 3, 3, 3, 0, 0);
+		for (int i = 0; i < out.length; i++) {
+			assertFalse(out[i], "glitch sample " + i);
+		}
+
+		// A dropout restarts the debounce timer
+		out = run(filter, 1, 3, 3, 3, 0, 3, 3, 3, 3, 3);
+		boolean[] expected = { false, false, false, false, false, false, false, false, true };
+		for (int i = 0; i < out.length; i++) {
+			assertEquals(expected[i], out[i], "dropout sample " + i);
+		}
+
+		// Uncovering is debounced the same way
+		out = run(filter, 2, 0, 0, 0, 0, 0);
+		expected = new boolean[] { true, true, true, true, false };
+		for (int i = 0; i < out.length; i++) {
+			assertEquals(expected[i], out[i], "uncover sample " + i);
+		}
+	}
+
+	@Test
+	void resetForgetsSamplesAndState() {
+		PhotoeyeFilter filter = new PhotoeyeFilter(4, COVERED, UNCOVERED, 0);
+		run(filter, 0, 3, 3, 3, 3);
+		assertTrue(filter.isCovered());
+
+		filter.reset();
+		assertFalse(filter.isCovered());
+		assertEquals(0, filter.getMean());
+		filter.update(1, 0);
+		assertEquals(1, filter.getMean());
+	}
+}
@@ -0,0 +1,71 @@
+package src.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PhotoeyeSamplerTest {
+
+	@Test
+	void samplesHeadlessInputsWithClockTimestamps() {
+		ScriptedInputSource source = new ScriptedInputSource(0.02);
+		SimulatedClock clock = new SimulatedClock();
+		PhotoeyeSampler sampler = new PhotoeyeSampler(clock, new PhotoeyeInput(0, 0.5, source),
+				new PhotoeyeInput(1, 0.5, source));
+
+		assertFalse(sampler.hasSample(0));
+		assertTrue(Double.isNaN(sampler.getTimestamp(0)));
+
+		source.setVoltage(0, 2.0);
+		source.setVoltage(1, 0.1);
+		clock.advance(1_500_000_000L);
+		sampler.sample();
+
+		assertTrue(sampler.getCovered(0));
+		assertFalse(sampler.getCovered(1));
+		assertEquals(1.5, sampler.getTimestamp(0), 1e-9);
+		assertEquals(1.5, sampler.getTimestamp(1), 1e-9);
+
+		source.setVoltage(0, 0.2);
+		clock.advance(20_000_000L);
+		sampler.sample();
+
+		assertFalse(sampler.getCovered(0));
+		assertEquals(1.52, sampler.getTimestamp(0), 1e-9);
+	}
+
+	@Test
+	void sampleAtClockEpochIsNotMistakenForNoSample() {
+		ScriptedInputSource source = new ScriptedInputSource(0.02);
+		PhotoeyeSampler sampler = new PhotoeyeSampler(new SimulatedClock(), new PhotoeyeInput(0, 0.5, source),
+				new PhotoeyeInput(1, 0.5, source));
+
+		sampler.sample();
+
+		assertTrue(sampler.hasSample(0));
+		assertTrue(sampler.hasSample(1));
+		assertFalse(sampler.getCovered(0));
+		assertEquals(0, sampler.getTimestamp(0));
+	}
+
+	@Test
+	void backgroundThreadPublishesSamples() throws InterruptedException {
+		ScriptedInputSource source = new ScriptedInputSource(0.02);
+		source.setVoltage(0, 2.0);
+		PhotoeyeSampler sampler = new PhotoeyeSampler(Clock.SYSTEM, new PhotoeyeInput(0, 0.5, source));
+
+		sampler.start(0.001);
+		try {
+			long deadline = System.nanoTime() + 1_000_000_000L;
+			while (!sampler.getCovered(0) && System.nanoTime() < deadline) {
+				Thread.sleep(1);
+			}
+		} finally {
+			sampler.stop();
+		}
+
+		assertTrue(sampler.getCovered(0));
+	}
+}
@@ -0,0 +1,141 @@
+package src.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Round trips through {@link TelemetryRecorder} and {@link TelemetryReader}.
+ */
+class TelemetryLogTest {
+
+	private static final String[] FIELDS = { "a", "b", "flag" };
+
+	@TempDir
+	Path dir;
+
+	private String path(String name) {
+		return dir.resolve(name).toString();
+	}
+
+	@Test
+	void readsBackEveryRecordInOrder() throws IOException {
+		String path = path("log.bin");
+		TelemetryRecorder log = new TelemetryRecorder(path, FIELDS, 16);
+		for (int i = 0; i < 10; i++) {
+			log.set(0, i);
+			log.set(1, -i * 0.5);
+			log.set(2, i % 2 == 0);
+			log.commit(i * 0.02);
+		}
+
+		TelemetryReader reader = new TelemetryReader(path);
+		assertArrayEquals(FIELDS, reader.getFields());
+		assertEquals(1, reader.indexOf("b"));
+		assertEquals(-1, reader.indexOf("missing"));
+		assertEquals(10, reader.getRecordCount());
+
+		for (int i = 0; i < 10; i++) {
+			assertTrue(reader.next());
+			assertEquals(i * 0.02, reader.getTimestamp());
+			assertEquals(i, reader.get(0));
+			assertEquals(-i * 0.5, reader.get(1));
+			assertEquals(i % 2 == 0, reader.getBoolean(2));
+		}
+		assertFalse(reader.next());
+	}
+
+	@Test
+	void keepsNewestRecordsAfterWrapping() throws IOException {
+		String path = path("wrap.bin");
+		int capacity = 4;
+		TelemetryRecorder log = new TelemetryRecorder(path, FIELDS, capacity);
+		for (int i = 0; i < 11; i++) {
+			log.set(0, i);
+			log.set(1, i);
+			log.commit(i);
+		}
+
+		TelemetryReader reader = new TelemetryReader(path);
+		assertEquals(capacity, reader.getRecordCount());
+		for (int i = 11 - capacity; i < 11; i++) {
+			assertTrue(reader.next());
+			assertEquals(i, reader.getTimestamp());
+			assertEquals(i, reader.get(0));
+		}
+		assertFalse(reader.next());
+	}
+
+	@Test
+	void unsetFieldsNeverCarryOtherCyclesValues() throws IOException {
+		String path = path("unset.bin");
+		int capacity = 3;
+		TelemetryRecorder log = new TelemetryRecorder(path, FIELDS, capacity);
+
+		// Fill every slot with b set, then keep writing without it
+		for (int i = 0; i < capacity; i++) {
+			log.set(0, i);
+			log.set(1, 100 + i);
+			log.commit(i);
+		}
+		for (int i = capacity; i < 2 * capacity + 1; i++) {
+			log.set(0, i);
+			log.commit(i);
+		}
+
+		TelemetryReader reader = new TelemetryReader(path);
+		while (reader.next()) {
+			assertEquals(reader.getTimestamp(), reader.get(0));
+			assertTrue(Double.isNaN(reader.get(1)), "b at " + reader.getTimestamp() + " = " + reader.get(1));
+		}
+	}
+
+	@Test
+	void writesCsv() throws IOException {
+		String path = path("csv.bin");
+		TelemetryRecorder log = new TelemetryRecorder(path, FIELDS, 2);
+		for (int i = 0; i < 3; i++) {
+			log.set(0, i);
+			log.set(1, 0.25 * i);
+			log.set(2, true);
+			log.commit(i);
+		}
+
+		StringWriter csv = new StringWriter();
+		new TelemetryReader(path).writeCsv(csv);
+
+		assertEquals("timestamp,a,b,flag\n" + "1.0,1.0,0.25,1.0\n" + "2.0,2.0,0.5,1.0\n", csv.toString());
+	}
+
+	@Test
+	void rejectsTruncatedLog() throws IOException {
+		String path = path("truncated.bin");
+		new TelemetryRecorder(path, FIELDS, 8).commit(0);
+		try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+			file.setLength(file.length() - 8);
+		}
+
+		IOException e = assertThrows(IOException.class, () -> new TelemetryReader(path));
+		assertTrue(e.getMessage().startsWith("Truncated"), e.getMessage());
+	}
+
+	@Test
+	void rejectsFileThatIsNotALog() throws IOException {
+		String path = path("empty.bin");
+		try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+			file.setLength(4);
+		}
+
+		assertThrows(IOException.class, () -> new TelemetryReader(path));
+	}
+}